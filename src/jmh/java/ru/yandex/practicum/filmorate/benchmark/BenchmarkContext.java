@@ -0,0 +1,32 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.yandex.practicum.filmorate.FilmorateApplication;
+import ru.yandex.practicum.filmorate.repository.FilmDbRepository;
+import ru.yandex.practicum.filmorate.repository.FriendshipDbRepository;
+import ru.yandex.practicum.filmorate.repository.LikeDbRepository;
+import ru.yandex.practicum.filmorate.repository.UserDbRepository;
+
+final class BenchmarkContext {
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(FilmorateApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;QUERY_CACHE_SIZE=64",
+                        "logging.level.root=WARN"
+                )
+                .run();
+    }
+
+    static void reseedIndexes(final ConfigurableApplicationContext context) {
+        context.getBean(UserDbRepository.class).seedUserIdIndex();
+        context.getBean(LikeDbRepository.class).seedIndexes();
+        context.getBean(FriendshipDbRepository.class).seedFriendGraph();
+        context.getBean(FilmDbRepository.class).seedSearchIndex();
+    }
+}
@@ -0,0 +1,97 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+final class BenchmarkDataset {
+    private static final int BATCH_SIZE = 1000;
+    private static final int MPA_COUNT = 5;
+    private static final int GENRE_COUNT = 6;
+
+    private BenchmarkDataset() {
+    }
+
+    static void users(final JdbcTemplate jdbc, final int count) {
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+
+        for (int i = 1; i <= count; i++) {
+            rows.add(new Object[] {"user" + i + "@sample.host", "user" + i, "User " + i, Date.valueOf("1990-08-01")});
+            flushIfFull(jdbc, "INSERT INTO users (email, login, name, birthday) VALUES (?, ?, ?, ?)", rows, i == count);
+        }
+    }
+
+    static void films(final JdbcTemplate jdbc, final int count, final long seed) {
+        Random random = new Random(seed);
+        List<Object[]> films = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> genres = new ArrayList<>(BATCH_SIZE);
+
+        for (int i = 1; i <= count; i++) {
+            films.add(new Object[] {
+                    1 + random.nextInt(MPA_COUNT),
+                    "Film " + i,
+                    "Description of film " + i,
+                    Date.valueOf(LocalDate.of(1950 + random.nextInt(75), 1 + random.nextInt(12), 1)),
+                    60 + random.nextInt(120)
+            });
+            genres.add(new Object[] {i, 1 + random.nextInt(GENRE_COUNT)});
+            flushIfFull(
+                    jdbc,
+                    "INSERT INTO films (mpa_id, name, description, release_date, duration) VALUES (?, ?, ?, ?, ?)",
+                    films,
+                    i == count
+            );
+            flushIfFull(jdbc, "INSERT INTO film_genre (film_id, genre_id) VALUES (?, ?)", genres, i == count);
+        }
+    }
+
+    // Drops films created by a benchmark past the seeded ones, returns whether there were any.
+    static boolean deleteFilmsAfter(final JdbcTemplate jdbc, final int count) {
+        jdbc.update("DELETE FROM film_genre WHERE film_id > ?", count);
+        int deleted = jdbc.update("DELETE FROM films WHERE id > ?", count);
+        jdbc.execute("ALTER TABLE films ALTER COLUMN id RESTART WITH " + (count + 1));
+
+        return deleted > 0;
+    }
+
+    static void likes(final JdbcTemplate jdbc, final int users, final int films, final int perUser, final long seed) {
+        Random random = new Random(seed);
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+
+        for (int user = 1; user <= users; user++) {
+            long userId = user;
+            random.ints(1, films + 1)
+                    .distinct()
+                    .limit(Math.min(perUser, films))
+                    .forEach(film -> rows.add(new Object[] {film, userId}));
+            flushIfFull(jdbc, "INSERT INTO film_like (film_id, user_id) VALUES (?, ?)", rows, user == users);
+        }
+
+        jdbc.update("UPDATE films AS f SET like_count = (SELECT COUNT(*) FROM film_like AS l WHERE l.film_id = f.id)");
+    }
+
+    static void friendships(final JdbcTemplate jdbc, final long userId, final long firstFriendId, final int count) {
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] {userId, firstFriendId + i});
+            flushIfFull(jdbc, "INSERT INTO friendship (user_id, friend_id) VALUES (?, ?)", rows, i == count - 1);
+        }
+    }
+
+    private static void flushIfFull(
+            final JdbcTemplate jdbc,
+            final String sql,
+            final List<Object[]> rows,
+            final boolean last
+    ) {
+        if (rows.size() >= BATCH_SIZE || last && !rows.isEmpty()) {
+            jdbc.batchUpdate(sql, rows);
+            rows.clear();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.repository.contracts.FriendshipRepository;
+import ru.yandex.practicum.filmorate.service.UserService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommonFriendsBenchmark {
+    private static final long USER_ID = 1L;
+    private static final long OTHER_ID = 2L;
+    private static final long FIRST_FRIEND_ID = 3L;
+
+    @Param({"10", "1000", "100000"})
+    public int friends;
+
+    private ConfigurableApplicationContext context;
+    private FriendshipRepository friendshipRepository;
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+
+        BenchmarkDataset.users(jdbc, 2 + friends + friends / 2);
+        BenchmarkDataset.friendships(jdbc, USER_ID, FIRST_FRIEND_ID, friends);
+        BenchmarkDataset.friendships(jdbc, OTHER_ID, FIRST_FRIEND_ID + friends / 2, friends);
+        BenchmarkContext.reseedIndexes(context);
+
+        friendshipRepository = context.getBean(FriendshipRepository.class);
+        userService = context.getBean(UserService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Long> findCommonFriendIds() {
+        return friendshipRepository.findCommonFriendIds(USER_ID, OTHER_ID);
+    }
+
+    @Benchmark
+    public List<User> getCommonFriends() {
+        return userService.getCommonFriends(USER_ID, OTHER_ID);
+    }
+}
@@ -0,0 +1,190 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public final class DatasetGenerator {
+    private static final int BATCH_SIZE = 1000;
+    private static final int MPA_COUNT = 5;
+    private static final int GENRE_COUNT = 6;
+    private static final String[] WORDS = {
+            "Ёлка", "Город", "Ночь", "Море", "Дом", "Любовь", "Война", "Время", "Дорога", "Звезда",
+            "Star", "Road", "Night", "City", "House", "Time", "River", "Winter", "Summer", "Ghost"
+    };
+
+    private final JdbcTemplate jdbc;
+    private final Random random;
+    private final double exponent;
+
+    private DatasetGenerator(final JdbcTemplate jdbc, final long seed, final double exponent) {
+        this.jdbc = jdbc;
+        this.random = new Random(seed);
+        this.exponent = exponent;
+    }
+
+    public static void main(final String[] args) {
+        Arguments arguments = Arguments.parse(args);
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                arguments.get("url", "jdbc:h2:file:./db/filmorate"),
+                arguments.get("username", "sa"),
+                arguments.get("password", "password")
+        );
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+
+        DatasetGenerator generator = new DatasetGenerator(
+                new JdbcTemplate(dataSource),
+                arguments.getLong("seed", 42L),
+                arguments.getDouble("exponent", 1.1)
+        );
+
+        int users = arguments.getInt("users", 10_000);
+        int films = arguments.getInt("films", 5_000);
+        long started = System.nanoTime();
+        long firstUserId = generator.users(users);
+        long firstFilmId = generator.films(films);
+        int likes = generator.likes(firstUserId, users, firstFilmId, films, arguments.getInt("likes", 200_000));
+        int friendships = generator.friendships(firstUserId, users, arguments.getInt("friendships", 100_000));
+
+        System.out.printf(
+                "Generated %d users, %d films, %d likes and %d friendships in %d ms%n",
+                users,
+                films,
+                likes,
+                friendships,
+                (System.nanoTime() - started) / 1_000_000
+        );
+        System.out.printf("LoadTest arguments: --first-user-id=%d --first-film-id=%d%n", firstUserId, firstFilmId);
+    }
+
+    private long users(final int count) {
+        long firstId = nextId("users");
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+
+        for (int i = 0; i < count; i++) {
+            String login = "load" + (firstId + i);
+            LocalDate birthday = LocalDate.of(1950 + random.nextInt(55), 1 + random.nextInt(12), 1 + random.nextInt(28));
+
+            rows.add(new Object[] {firstId + i, login + "@sample.host", login, "User " + login, Date.valueOf(birthday)});
+            flush("INSERT INTO users (id, email, login, name, birthday) VALUES (?, ?, ?, ?, ?)", rows, i == count - 1);
+        }
+
+        restartIdentity("users", firstId + count);
+
+        return firstId;
+    }
+
+    private long films(final int count) {
+        long firstId = nextId("films");
+        List<Object[]> films = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> genres = new ArrayList<>(BATCH_SIZE);
+
+        for (int i = 0; i < count; i++) {
+            long id = firstId + i;
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + id;
+            LocalDate releaseDate = LocalDate.of(1950 + random.nextInt(75), 1 + random.nextInt(12), 1 + random.nextInt(28));
+
+            films.add(new Object[] {
+                    id,
+                    1 + random.nextInt(MPA_COUNT),
+                    name,
+                    "Описание фильма " + name,
+                    Date.valueOf(releaseDate),
+                    60 + random.nextInt(120)
+            });
+            random.ints(1, GENRE_COUNT + 1)
+                    .distinct()
+                    .limit(1 + random.nextInt(3))
+                    .forEach(genreId -> genres.add(new Object[] {id, genreId}));
+
+            flush(
+                    "INSERT INTO films (id, mpa_id, name, description, release_date, duration) VALUES (?, ?, ?, ?, ?, ?)",
+                    films,
+                    i == count - 1
+            );
+            flush("INSERT INTO film_genre (film_id, genre_id) VALUES (?, ?)", genres, i == count - 1);
+        }
+
+        restartIdentity("films", firstId + count);
+
+        return firstId;
+    }
+
+    private int likes(final long firstUserId, final int users, final long firstFilmId, final int films, final int count) {
+        ZipfDistribution activeUsers = new ZipfDistribution(users, exponent);
+        ZipfDistribution popularFilms = new ZipfDistribution(films, exponent);
+        Set<Long> seen = new HashSet<>();
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+
+        for (long attempt = 0; seen.size() < count && attempt < count * 10L; attempt++) {
+            int user = activeUsers.sample(random);
+            int film = popularFilms.sample(random);
+
+            if (seen.add((long) user * films + film)) {
+                rows.add(new Object[] {firstFilmId + film, firstUserId + user});
+                flush("INSERT INTO film_like (film_id, user_id) VALUES (?, ?)", rows, false);
+            }
+        }
+
+        flush("INSERT INTO film_like (film_id, user_id) VALUES (?, ?)", rows, true);
+        jdbc.update(
+                "UPDATE films AS f SET like_count = (SELECT COUNT(*) FROM film_like AS l WHERE l.film_id = f.id) " +
+                        "WHERE f.id >= ?",
+                firstFilmId
+        );
+
+        return seen.size();
+    }
+
+    private int friendships(final long firstUserId, final int users, final int count) {
+        ZipfDistribution activeUsers = new ZipfDistribution(users, exponent);
+        ZipfDistribution hubs = new ZipfDistribution(users, exponent);
+        Set<Long> seen = new HashSet<>();
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+
+        for (long attempt = 0; seen.size() < count && attempt < count * 10L; attempt++) {
+            int user = activeUsers.sample(random);
+            int friend = users - 1 - hubs.sample(random);
+
+            if (user != friend && seen.add((long) user * users + friend)) {
+                rows.add(new Object[] {firstUserId + user, firstUserId + friend});
+                flush("INSERT INTO friendship (user_id, friend_id) VALUES (?, ?)", rows, false);
+            }
+        }
+
+        flush("INSERT INTO friendship (user_id, friend_id) VALUES (?, ?)", rows, true);
+
+        return seen.size();
+    }
+
+    private long nextId(final String table) {
+        Long maxId = jdbc.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+
+        return maxId == null ? 1L : maxId + 1;
+    }
+
+    private void restartIdentity(final String table, final long nextId) {
+        jdbc.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + nextId);
+    }
+
+    private void flush(final String sql, final List<Object[]> rows, final boolean last) {
+        if (rows.size() >= BATCH_SIZE || last && !rows.isEmpty()) {
+            jdbc.batchUpdate(sql, rows);
+            rows.clear();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.repository.GenreDbRepository;
+import ru.yandex.practicum.filmorate.repository.contracts.FilmRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+// Default matrix, results go to target/jmh-result.json:
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.args=FilmRepositoryBenchmark
+// The 10M like point on its own:
+//   mvn -Pbenchmark test-compile exec:exec \
+//       "-Djmh.args=FilmRepositoryBenchmark -p films=10000 -p users=1000000 -p likesPerUser=10 -jvmArgsAppend -Xmx8g"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilmRepositoryBenchmark {
+    private static final int GENRE_BATCH = 100;
+
+    @Param({"1000", "10000"})
+    public int films;
+
+    // Users times likes per user spans 10k to 1M likes. 10M likes keep about 5 GB live, so that point is run on its
+    // own with -p users=1000000 and a larger heap.
+    @Param({"1000", "10000", "100000"})
+    public int users;
+
+    @Param({"10"})
+    public int likesPerUser;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbc;
+    private FilmRepository filmRepository;
+    private GenreDbRepository genreDbRepository;
+    private Film film;
+    private List<Long> filmIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        jdbc = context.getBean(JdbcTemplate.class);
+
+        BenchmarkDataset.users(jdbc, users);
+        BenchmarkDataset.films(jdbc, films, 42L);
+        BenchmarkDataset.likes(jdbc, users, films, likesPerUser, 42L);
+        BenchmarkContext.reseedIndexes(context);
+
+        filmRepository = context.getBean(FilmRepository.class);
+        genreDbRepository = context.getBean(GenreDbRepository.class);
+        film = filmRepository.findById(1L);
+        filmIds = LongStream.rangeClosed(1, Math.min(GENRE_BATCH, films)).boxed().toList();
+    }
+
+    // create() adds a film per call, so every iteration starts from the seeded dataset again.
+    @TearDown(Level.Iteration)
+    public void resetDataset() {
+        if (BenchmarkDataset.deleteFilmsAfter(jdbc, films)) {
+            BenchmarkContext.reseedIndexes(context);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Film> getAll() {
+        return filmRepository.getAll();
+    }
+
+    @Benchmark
+    public List<Film> getPopular() {
+        return filmRepository.getPopular(10);
+    }
+
+    @Benchmark
+    public Film create() {
+        Film created = Film.builder()
+                .name("Benchmark film")
+                .description("Created by benchmark")
+                .releaseDate(LocalDate.of(2000, 1, 1))
+                .duration(100)
+                .mpa(Mpa.builder().id(1L).build())
+                .build();
+        created.getGenres().add(Genre.builder().id(1L).build());
+
+        return filmRepository.create(created);
+    }
+
+    @Benchmark
+    public Film update() {
+        return filmRepository.update(film);
+    }
+
+    @Benchmark
+    public Map<Long, List<Genre>> findGenresByFilmIds() {
+        return genreDbRepository.findByFilmId(filmIds);
+    }
+}
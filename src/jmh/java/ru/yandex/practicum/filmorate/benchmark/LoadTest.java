@@ -0,0 +1,274 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+public final class LoadTest {
+    private static final String[] QUERIES = {"ёлка", "город", "ночь", "star", "road", "winter"};
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final URI baseUrl;
+    private final long firstUserId;
+    private final long firstFilmId;
+    // Same ranks as DatasetGenerator, so the ids hit most are the users and films with most likes and friends.
+    private final ZipfDistribution activeUsers;
+    private final ZipfDistribution popularFilms;
+    private final List<Scenario> scenarios = new ArrayList<>();
+    private int totalWeight;
+
+    private LoadTest(
+            final URI baseUrl,
+            final long firstUserId,
+            final int users,
+            final long firstFilmId,
+            final int films,
+            final double exponent
+    ) {
+        this.baseUrl = baseUrl;
+        this.firstUserId = firstUserId;
+        this.firstFilmId = firstFilmId;
+        this.activeUsers = new ZipfDistribution(users, exponent);
+        this.popularFilms = new ZipfDistribution(films, exponent);
+
+        scenario("GET /films/popular", 25, (random, uri) -> get(uri.resolve("/films/popular?count=10")));
+        scenario("GET /films/{id}", 20, (random, uri) -> get(uri.resolve("/films/" + film(random))));
+        scenario("GET /films/search", 5, (random, uri) -> get(uri.resolve(
+                "/films/search?query=" + URLEncoder.encode(QUERIES[random.nextInt(QUERIES.length)], StandardCharsets.UTF_8)
+        )));
+        scenario("GET /users/{id}/friends", 15, (random, uri) -> get(uri.resolve("/users/" + user(random) + "/friends")));
+        scenario("GET /users/{id}/friends/common/{otherId}", 10, (random, uri) -> get(uri.resolve(
+                "/users/" + user(random) + "/friends/common/" + user(random)
+        )));
+        scenario("GET /users/{id}/recommendations", 5, (random, uri) -> get(uri.resolve(
+                "/users/" + user(random) + "/recommendations"
+        )));
+        scenario("PUT /films/{id}/like/{userId}", 12, (random, uri) -> send("PUT", uri.resolve(
+                "/films/" + film(random) + "/like/" + user(random)
+        )));
+        scenario("DELETE /films/{id}/like/{userId}", 5, (random, uri) -> send("DELETE", uri.resolve(
+                "/films/" + film(random) + "/like/" + user(random)
+        )));
+        scenario("PUT /users/{id}/friends/{friendId}", 3, (random, uri) -> send("PUT", uri.resolve(
+                "/users/" + user(random) + "/friends/" + user(random)
+        )));
+    }
+
+    public static void main(final String[] args) throws InterruptedException {
+        Arguments arguments = Arguments.parse(args);
+        LoadTest loadTest = new LoadTest(
+                URI.create(arguments.get("base-url", "http://localhost:8080")),
+                arguments.getLong("first-user-id", 1L),
+                arguments.getInt("users", 10_000),
+                arguments.getLong("first-film-id", 1L),
+                arguments.getInt("films", 5_000),
+                arguments.getDouble("exponent", 1.1)
+        );
+
+        loadTest.run(
+                arguments.getInt("concurrency", 32),
+                Duration.parse(arguments.get("warmup", "PT10S")),
+                Duration.parse(arguments.get("duration", "PT60S")),
+                arguments.getLong("seed", 42L)
+        );
+    }
+
+    private void run(final int concurrency, final Duration warmup, final Duration duration, final long seed)
+            throws InterruptedException {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureTo = measureFrom + duration.toNanos();
+        List<Worker> workers = new ArrayList<>(concurrency);
+        List<Thread> threads = new ArrayList<>(concurrency);
+
+        for (int i = 0; i < concurrency; i++) {
+            Worker worker = new Worker(new Random(seed + i), measureFrom, measureTo);
+            workers.add(worker);
+            threads.add(Thread.ofPlatform().name("load-" + i).start(worker));
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        report(workers, duration);
+    }
+
+    private void report(final List<Worker> workers, final Duration duration) {
+        double seconds = duration.toNanos() / 1e9;
+        long total = 0;
+
+        System.out.printf(
+                "%-42s %10s %8s %8s %10s %10s %10s%n",
+                "endpoint",
+                "requests",
+                "4xx",
+                "errors",
+                "req/s",
+                "p50 ms",
+                "p99 ms"
+        );
+
+        for (int i = 0; i < scenarios.size(); i++) {
+            Samples merged = new Samples();
+
+            for (Worker worker : workers) {
+                merged.addAll(worker.samples.get(i));
+            }
+
+            long[] latencies = merged.sorted();
+            total += latencies.length;
+
+            System.out.printf(
+                    "%-42s %10d %8d %8d %10.1f %10.2f %10.2f%n",
+                    scenarios.get(i).name(),
+                    latencies.length,
+                    merged.rejected,
+                    merged.errors,
+                    latencies.length / seconds,
+                    percentile(latencies, 0.50),
+                    percentile(latencies, 0.99)
+            );
+        }
+
+        System.out.printf("%-42s %10d %8s %8s %10.1f%n", "total", total, "", "", total / seconds);
+    }
+
+    private static double percentile(final long[] sorted, final double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+    }
+
+    private void scenario(final String name, final int weight, final BiFunction<Random, URI, HttpRequest> request) {
+        scenarios.add(new Scenario(name, weight, request));
+        totalWeight += weight;
+    }
+
+    private int pick(final Random random) {
+        int target = random.nextInt(totalWeight);
+
+        for (int i = 0; i < scenarios.size(); i++) {
+            target -= scenarios.get(i).weight();
+
+            if (target < 0) {
+                return i;
+            }
+        }
+
+        return scenarios.size() - 1;
+    }
+
+    private long user(final Random random) {
+        return firstUserId + activeUsers.sample(random);
+    }
+
+    private long film(final Random random) {
+        return firstFilmId + popularFilms.sample(random);
+    }
+
+    private static HttpRequest get(final URI uri) {
+        return HttpRequest.newBuilder(uri).GET().build();
+    }
+
+    private static HttpRequest send(final String method, final URI uri) {
+        return HttpRequest.newBuilder(uri).method(method, HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private record Scenario(String name, int weight, BiFunction<Random, URI, HttpRequest> request) {
+    }
+
+    private final class Worker implements Runnable {
+        private final Random random;
+        private final long measureFrom;
+        private final long measureTo;
+        private final List<Samples> samples = new ArrayList<>();
+
+        private Worker(final Random random, final long measureFrom, final long measureTo) {
+            this.random = random;
+            this.measureFrom = measureFrom;
+            this.measureTo = measureTo;
+
+            for (int i = 0; i < scenarios.size(); i++) {
+                samples.add(new Samples());
+            }
+        }
+
+        @Override
+        public void run() {
+            long now = System.nanoTime();
+
+            while (now < measureTo) {
+                int scenario = pick(random);
+                HttpRequest request = scenarios.get(scenario).request().apply(random, baseUrl);
+                int status;
+
+                try {
+                    status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                } catch (IOException e) {
+                    status = -1;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+
+                long finished = System.nanoTime();
+
+                if (now >= measureFrom) {
+                    samples.get(scenario).add(finished - now, status);
+                }
+
+                now = finished;
+            }
+        }
+    }
+
+    private static final class Samples {
+        private long[] latencies = new long[1024];
+        private int size;
+        private long rejected;
+        private long errors;
+
+        // Status -1 stands for an I/O failure, which counts as an error like a 5xx.
+        void add(final long latency, final int status) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+
+            latencies[size++] = latency;
+
+            if (status >= 400 && status < 500) {
+                rejected++;
+            } else if (status >= 500 || status < 0) {
+                errors++;
+            }
+        }
+
+        void addAll(final Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.latencies[i], 0);
+            }
+
+            rejected += other.rejected;
+            errors += other.errors;
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(latencies, size);
+            Arrays.sort(copy);
+
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.repository.mappers.FilmRowMapper;
+import ru.yandex.practicum.filmorate.repository.mappers.UserRowMapper;
+
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMapperBenchmark {
+    private final FilmRowMapper filmRowMapper = new FilmRowMapper();
+    private final UserRowMapper userRowMapper = new UserRowMapper();
+    private SimpleResultSet filmRow;
+    private SimpleResultSet userRow;
+
+    @Setup
+    public void setUp() {
+        filmRow = new SimpleResultSet();
+        filmRow.setAutoClose(false);
+        filmRow.addColumn("id", Types.BIGINT, 19, 0);
+        filmRow.addColumn("name", Types.VARCHAR, 255, 0);
+        filmRow.addColumn("description", Types.VARCHAR, 255, 0);
+        filmRow.addColumn("duration", Types.INTEGER, 10, 0);
+        filmRow.addColumn("release_date", Types.DATE, 10, 0);
+        filmRow.addColumn("mpa_id", Types.BIGINT, 19, 0);
+        filmRow.addColumn("mpa_name", Types.VARCHAR, 255, 0);
+        filmRow.addRow(1L, "Film", "Description", 100, Date.valueOf("2000-01-01"), 1L, "G");
+
+        userRow = new SimpleResultSet();
+        userRow.setAutoClose(false);
+        userRow.addColumn("id", Types.BIGINT, 19, 0);
+        userRow.addColumn("name", Types.VARCHAR, 255, 0);
+        userRow.addColumn("login", Types.VARCHAR, 255, 0);
+        userRow.addColumn("email", Types.VARCHAR, 255, 0);
+        userRow.addColumn("birthday", Types.DATE, 10, 0);
+        userRow.addRow(1L, "User", "user", "user@sample.host", Date.valueOf("1990-08-01"));
+    }
+
+    @Benchmark
+    public Film mapFilm() throws SQLException {
+        filmRow.beforeFirst();
+        filmRow.next();
+
+        return filmRowMapper.mapRow(filmRow, 1);
+    }
+
+    @Benchmark
+    public User mapUser() throws SQLException {
+        userRow.beforeFirst();
+        userRow.next();
+
+        return userRowMapper.mapRow(userRow, 1);
+    }
+}
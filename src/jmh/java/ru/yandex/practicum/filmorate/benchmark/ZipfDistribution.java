@@ -0,0 +1,28 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+final class ZipfDistribution {
+    private final double[] cumulative;
+
+    ZipfDistribution(final int size, final double exponent) {
+        cumulative = new double[size];
+        double sum = 0;
+
+        for (int rank = 1; rank <= size; rank++) {
+            sum += 1 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = sum;
+        }
+
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    int sample(final Random random) {
+        int position = Arrays.binarySearch(cumulative, random.nextDouble());
+
+        return Math.min(position >= 0 ? position : -position - 1, cumulative.length - 1);
+    }
+}
@@ -0,0 +1,45 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+// Sends the ETag prepared by CatalogETagInterceptor with successful bodies only, error bodies never get one.
+@ControllerAdvice
+public class CatalogETagAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(
+            final MethodParameter returnType,
+            final Class<? extends HttpMessageConverter<?>> converterType
+    ) {
+        return returnType.hasMethodAnnotation(CatalogETag.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(
+            final Object body,
+            final MethodParameter returnType,
+            final MediaType selectedContentType,
+            final Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            final ServerHttpRequest request,
+            final ServerHttpResponse response
+    ) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && response instanceof ServletServerHttpResponse servletResponse
+                && HttpStatus.valueOf(servletResponse.getServletResponse().getStatus()).is2xxSuccessful()
+                && servletRequest.getServletRequest().getAttribute(CatalogETagInterceptor.ETAG_ATTRIBUTE)
+                instanceof String etag) {
+            response.getHeaders().setETag("\"" + etag + "\"");
+        }
+
+        return body;
+    }
+}
@@ -0,0 +1,67 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.yandex.practicum.filmorate.service.CatalogVersionService;
+
+import java.util.Enumeration;
+
+@Component
+@RequiredArgsConstructor
+public class CatalogETagInterceptor implements HandlerInterceptor, WebMvcConfigurer {
+    static final String ETAG_ATTRIBUTE = CatalogETagInterceptor.class.getName() + ".etag";
+
+    private final CatalogVersionService catalogVersionService;
+
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        registry.addInterceptor(this);
+    }
+
+    @Override
+    public boolean preHandle(
+            final HttpServletRequest request,
+            final HttpServletResponse response,
+            final Object handler
+    ) {
+        if (!(handler instanceof HandlerMethod method) || !method.hasMethodAnnotation(CatalogETag.class)) {
+            return true;
+        }
+
+        // Checked before the handler runs, so a 304 costs neither a query nor serialization. CatalogETagAdvice sends
+        // the ETag with 2xx bodies only, so a matching one always stands for a successful response of this version.
+        String version = catalogVersionService.getVersion(method.getMethodAnnotation(CatalogETag.class).value());
+        String resource = request.getQueryString() == null
+                ? request.getRequestURI()
+                : request.getRequestURI() + "?" + request.getQueryString();
+        String etag = version + "-" + Integer.toHexString(resource.hashCode());
+        request.setAttribute(ETAG_ATTRIBUTE, etag);
+
+        return !(matches(request, etag) && new ServletWebRequest(request, response).checkNotModified(etag));
+    }
+
+    private static boolean matches(final HttpServletRequest request, final String etag) {
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.IF_NONE_MATCH);
+        String quoted = "\"" + etag + "\"";
+
+        while (headers.hasMoreElements()) {
+            for (String candidate : headers.nextElement().split(",")) {
+                String tag = candidate.trim();
+
+                if (tag.equals(quoted) || tag.equals("W/" + quoted)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+}
@@ -1,6 +1,10 @@
 package ru.yandex.practicum.filmorate.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,26 +14,70 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.yandex.practicum.filmorate.model.BatchResult;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Page;
+import ru.yandex.practicum.filmorate.service.Catalog;
 import ru.yandex.practicum.filmorate.service.FilmService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
+import java.util.List;
 
 @RestController
 @RequestMapping("/films")
 public class FilmController {
     private final FilmService filmService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public FilmController(final FilmService filmService) {
+    public FilmController(final FilmService filmService, final ObjectMapper objectMapper) {
         this.filmService = filmService;
+        this.objectMapper = objectMapper;
     }
 
+    @CatalogETag(Catalog.FILMS)
     @GetMapping
     public Collection<Film> list() {
         return filmService.getList();
     }
 
+    @CatalogETag(Catalog.FILMS)
+    @GetMapping(params = "limit")
+    public Page<Film> page(
+            @RequestParam(required = false, defaultValue = "0") final Long after,
+            @RequestParam final int limit
+    ) {
+        return filmService.getPage(after, limit);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream() {
+        StreamingResponseBody body = out -> {
+            JsonGenerator generator = objectMapper.getFactory()
+                    .createGenerator(out)
+                    .setRootValueSeparator(null);
+
+            filmService.streamAll(film -> {
+                try {
+                    objectMapper.writeValue(generator, film);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            generator.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @CatalogETag(Catalog.FILMS)
     @GetMapping("/{id}")
     public Film getFilm(@PathVariable final Long id) {
         return filmService.getFilm(id);
@@ -40,6 +88,11 @@ public class FilmController {
         return filmService.create(film);
     }
 
+    @PostMapping("/batch")
+    public BatchResult<Film> createAll(@RequestBody final List<Film> films) {
+        return filmService.createAll(films);
+    }
+
     @PutMapping
     public Film update(@RequestBody final Film film) {
         return filmService.update(film);
@@ -61,10 +114,21 @@ public class FilmController {
         filmService.deleteLike(id, userId);
     }
 
+    @GetMapping("/search")
+    public Collection<Film> search(
+            @RequestParam final String query,
+            @RequestParam(required = false, defaultValue = "title,description") final List<String> by,
+            @RequestParam(required = false, defaultValue = "10") final int count
+    ) {
+        return filmService.search(query, by, count);
+    }
+
     @GetMapping("/popular")
     public Collection<Film> popular(
-            @RequestParam(required = false, defaultValue = "10") final int count
+            @RequestParam(required = false, defaultValue = "10") final int count,
+            @RequestParam(required = false) final Long genreId,
+            @RequestParam(required = false) final Integer year
     ) {
-        return filmService.getPopular(count);
+        return filmService.getPopular(count, genreId, year);
     }
 }
@@ -1,26 +1,47 @@
 package ru.yandex.practicum.filmorate.controller;
 
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.service.Catalog;
+import ru.yandex.practicum.filmorate.service.CatalogVersionService;
 import ru.yandex.practicum.filmorate.service.GenreService;
 
-import java.util.Collection;
-
 @RestController
 @RequestMapping("/genres")
-@RequiredArgsConstructor
 public class GenreController {
     private final GenreService genreService;
+    private final JsonPayloadCache listPayload;
+
+    @Autowired
+    public GenreController(
+            final GenreService genreService,
+            final CatalogVersionService catalogVersionService,
+            final ObjectMapper objectMapper
+    ) {
+        this.genreService = genreService;
+        this.listPayload = new JsonPayloadCache(
+                objectMapper,
+                () -> catalogVersionService.getVersion(Catalog.GENRES),
+                genreService::getList
+        );
+    }
 
+    @CatalogETag(Catalog.GENRES)
     @GetMapping
-    public Collection<Genre> list() {
-        return genreService.getList();
+    public ResponseEntity<byte[]> list() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(listPayload.get());
     }
 
+    @CatalogETag(Catalog.GENRES)
     @GetMapping("/{id}")
     public Genre getById(@PathVariable final Long id) {
         return genreService.getById(id);
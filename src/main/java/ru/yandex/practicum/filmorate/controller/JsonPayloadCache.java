@@ -0,0 +1,43 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.yandex.practicum.filmorate.exception.InternalErrorException;
+
+import java.util.function.Supplier;
+
+class JsonPayloadCache {
+    private final ObjectMapper objectMapper;
+    private final Supplier<String> version;
+    private final Supplier<?> source;
+    private volatile Payload payload;
+
+    JsonPayloadCache(final ObjectMapper objectMapper, final Supplier<String> version, final Supplier<?> source) {
+        this.objectMapper = objectMapper;
+        this.version = version;
+        this.source = source;
+    }
+
+    byte[] get() {
+        // Version is read before the source, so a concurrent change is re-serialized on the next call.
+        String current = version.get();
+        Payload cached = payload;
+
+        if (cached != null && cached.version().equals(current)) {
+            return cached.body();
+        }
+
+        try {
+            cached = new Payload(current, objectMapper.writeValueAsBytes(source.get()));
+        } catch (JsonProcessingException e) {
+            throw new InternalErrorException("Error on serializing payload");
+        }
+
+        payload = cached;
+
+        return cached.body();
+    }
+
+    private record Payload(String version, byte[] body) {
+    }
+}
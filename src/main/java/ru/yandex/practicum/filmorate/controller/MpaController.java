@@ -1,30 +1,47 @@
 package ru.yandex.practicum.filmorate.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.service.Catalog;
+import ru.yandex.practicum.filmorate.service.CatalogVersionService;
 import ru.yandex.practicum.filmorate.service.MpaService;
 
-import java.util.Collection;
-
 @RestController
 @RequestMapping("/mpa")
 public class MpaController {
     private final MpaService mpaService;
+    private final JsonPayloadCache listPayload;
 
     @Autowired
-    public MpaController(final MpaService mpaService) {
+    public MpaController(
+            final MpaService mpaService,
+            final CatalogVersionService catalogVersionService,
+            final ObjectMapper objectMapper
+    ) {
         this.mpaService = mpaService;
+        this.listPayload = new JsonPayloadCache(
+                objectMapper,
+                () -> catalogVersionService.getVersion(Catalog.MPA),
+                mpaService::getList
+        );
     }
 
+    @CatalogETag(Catalog.MPA)
     @GetMapping
-    public Collection<Mpa> list() {
-        return mpaService.getList();
+    public ResponseEntity<byte[]> list() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(listPayload.get());
     }
 
+    @CatalogETag(Catalog.MPA)
     @GetMapping("/{id}")
     public Mpa getById(@PathVariable final Long id) {
         return mpaService.getById(id);
@@ -0,0 +1,36 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.metrics.SlowQueryLog;
+import ru.yandex.practicum.filmorate.model.SlowQuery;
+
+import java.util.Collection;
+
+@RestController
+@RequestMapping("/admin/slow-queries")
+public class SlowQueryController {
+    private final SlowQueryLog slowQueryLog;
+
+    public SlowQueryController(final SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @GetMapping
+    public Collection<SlowQuery> list(@RequestParam(required = false, defaultValue = "100") final int limit) {
+        if (limit <= 0) {
+            throw new ValidationException("Limit must be greater than 0");
+        }
+
+        return slowQueryLog.recent(limit);
+    }
+
+    @DeleteMapping
+    public void clear() {
+        slowQueryLog.clear();
+    }
+}
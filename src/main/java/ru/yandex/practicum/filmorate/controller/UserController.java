@@ -1,5 +1,7 @@
 package ru.yandex.practicum.filmorate.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -8,20 +10,31 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.model.BatchResult;
+import ru.yandex.practicum.filmorate.model.BatchSummary;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Friendship;
+import ru.yandex.practicum.filmorate.model.Page;
 import ru.yandex.practicum.filmorate.model.User;
 import ru.yandex.practicum.filmorate.service.UserService;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collection;
+import java.util.List;
 
 @RestController
 @RequestMapping("/users")
 public class UserController {
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
-    public UserController(final UserService userService) {
+    public UserController(final UserService userService, final ObjectMapper objectMapper) {
         this.userService = userService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
@@ -29,12 +42,32 @@ public class UserController {
         return userService.getList();
     }
 
+    @GetMapping(params = "limit")
+    public Page<User> page(
+            @RequestParam(required = false, defaultValue = "0") final Long after,
+            @RequestParam final int limit
+    ) {
+        return userService.getPage(after, limit);
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public User create(@RequestBody final User user) {
         return userService.create(user);
     }
 
+    @PostMapping("/batch")
+    public BatchResult<User> createAll(@RequestBody final List<User> users) {
+        return userService.createAll(users);
+    }
+
+    @PostMapping("/friends/batch")
+    public BatchSummary addFriends(final InputStream body) throws IOException {
+        try (MappingIterator<Friendship> friendships = objectMapper.readerFor(Friendship.class).readValues(body)) {
+            return userService.addFriends(friendships);
+        }
+    }
+
     @PutMapping
     public User update(@RequestBody final User user) {
         return userService.update(user);
@@ -61,6 +94,22 @@ public class UserController {
         return userService.getUserFriends(id);
     }
 
+    @GetMapping("/{id}/recommendations")
+    public Collection<Film> getRecommendedFilms(
+            @PathVariable final Long id,
+            @RequestParam(required = false, defaultValue = "10") final int count
+    ) {
+        return userService.getRecommendedFilms(id, count);
+    }
+
+    @GetMapping("/{id}/recommendations/friends")
+    public Collection<User> getRecommendedFriends(
+            @PathVariable final Long id,
+            @RequestParam(required = false, defaultValue = "10") final int count
+    ) {
+        return userService.getRecommendedFriends(id, count);
+    }
+
     @GetMapping("/{id}/friends/common/{otherId}")
     public Collection<User> getCommonFriends(
             @PathVariable final Long id,
@@ -0,0 +1,36 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.repository.cache.CachedGenreRepository;
+import ru.yandex.practicum.filmorate.repository.cache.CachedMpaRepository;
+import ru.yandex.practicum.filmorate.repository.cache.DictionaryCache;
+
+@Component
+@RequiredArgsConstructor
+public class DictionaryCacheMetrics implements MeterBinder {
+    private static final String METRIC_NAME = "filmorate.dictionary.cache.requests";
+
+    private final CachedMpaRepository mpaRepository;
+    private final CachedGenreRepository genreRepository;
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        bind(registry, "mpa", mpaRepository.getCache());
+        bind(registry, "genre", genreRepository.getCache());
+    }
+
+    private void bind(final MeterRegistry registry, final String dictionary, final DictionaryCache<?> cache) {
+        FunctionCounter.builder(METRIC_NAME, cache, DictionaryCache::getHitCount)
+                .tag("dictionary", dictionary)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder(METRIC_NAME, cache, DictionaryCache::getMissCount)
+                .tag("dictionary", dictionary)
+                .tag("result", "miss")
+                .register(registry);
+    }
+}
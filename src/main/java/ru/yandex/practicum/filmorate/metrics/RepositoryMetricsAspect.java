@@ -0,0 +1,95 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Page;
+import ru.yandex.practicum.filmorate.repository.contracts.WriteOutcome;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryMetricsAspect {
+    private static final String TIMER_NAME = "filmorate.repository.calls";
+    private static final String ROWS_NAME = "filmorate.repository.rows";
+
+    private final MeterRegistry registry;
+    private final Map<Method, Meters> meters = new ConcurrentHashMap<>();
+
+    @Around("execution(public * ru.yandex.practicum.filmorate.repository.*DbRepository.*(..))")
+    public Object measure(final ProceedingJoinPoint joinPoint) throws Throwable {
+        Meters methodMeters = meters.computeIfAbsent(
+                ((MethodSignature) joinPoint.getSignature()).getMethod(),
+                method -> register(joinPoint.getTarget().getClass().getSimpleName(), method.getName())
+        );
+        long started = System.nanoTime();
+        Object result = null;
+        boolean failed = true;
+
+        try {
+            result = joinPoint.proceed();
+            failed = false;
+
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - started;
+
+            if (failed) {
+                timer(methodMeters.repository(), methodMeters.method(), "error").record(elapsed, TimeUnit.NANOSECONDS);
+            } else {
+                methodMeters.succeeded().record(elapsed, TimeUnit.NANOSECONDS);
+                methodMeters.rows().increment(rows(result));
+            }
+        }
+    }
+
+    // Error timers are registered on the first failure, most methods never fail and would only add empty histograms.
+    private Meters register(final String repository, final String method) {
+        return new Meters(
+                repository,
+                method,
+                timer(repository, method, "success"),
+                Counter.builder(ROWS_NAME)
+                        .tag("repository", repository)
+                        .tag("method", method)
+                        .register(registry)
+        );
+    }
+
+    private Timer timer(final String repository, final String method, final String outcome) {
+        return Timer.builder(TIMER_NAME)
+                .tag("repository", repository)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static long rows(final Object result) {
+        return switch (result) {
+            case null -> 0;
+            case Collection<?> collection -> collection.size();
+            case Map<?, ?> map -> map.size();
+            case Page<?> page -> page.getItems().size();
+            case Integer count -> Math.max(count, 0);
+            case Boolean exists -> exists ? 1 : 0;
+            case WriteOutcome outcome -> outcome == WriteOutcome.APPLIED ? 1 : 0;
+            default -> 1;
+        };
+    }
+
+    private record Meters(String repository, String method, Timer succeeded, Counter rows) {
+    }
+}
@@ -0,0 +1,294 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import ru.yandex.practicum.filmorate.model.SlowQuery;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class SlowQueryDataSource extends DelegatingDataSource implements AutoCloseable {
+    private static final int EXPLAIN_QUEUE_SIZE = 16;
+    private static final String REDACTED = "'***'";
+
+    private final SlowQueryLog slowQueryLog;
+    private final long thresholdNanos;
+    private final boolean explain;
+    private final ExecutorService explainExecutor = new ThreadPoolExecutor(
+            1,
+            1,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(EXPLAIN_QUEUE_SIZE),
+            Thread.ofPlatform().name("slow-query-explain").daemon(true).factory(),
+            new ThreadPoolExecutor.DiscardPolicy()
+    );
+
+    public SlowQueryDataSource(
+            final DataSource target,
+            final SlowQueryLog slowQueryLog,
+            final long thresholdMs,
+            final boolean explain
+    ) {
+        super(target);
+        this.slowQueryLog = slowQueryLog;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.explain = explain;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    @Override
+    public void close() throws Exception {
+        explainExecutor.shutdownNow();
+
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private SlowQuery record(
+            final String sql,
+            final List<Object> parameters,
+            final long elapsedNanos,
+            final long rows,
+            final int batchSize
+    ) {
+        if (elapsedNanos < thresholdNanos) {
+            return null;
+        }
+
+        SlowQuery entry = SlowQuery.builder()
+                .timestamp(Instant.now())
+                .sql(sql)
+                .parameters(parameters.stream().map(SlowQueryDataSource::redact).toList())
+                .durationMs(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                .rows(rows)
+                .batchSize(batchSize)
+                .build();
+
+        slowQueryLog.add(entry);
+        log.warn("Slow query took {} ms: {}", entry.getDurationMs(), sql);
+
+        if (explain && isExplainable(sql)) {
+            explainExecutor.execute(() -> slowQueryLog.attachPlan(entry, explain(sql, parameters)));
+        }
+
+        return entry;
+    }
+
+    private String explain(final String sql, final List<Object> parameters) {
+        try (Connection connection = obtainTargetDataSource().getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+
+            List<String> plan = new ArrayList<>();
+
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    plan.add(rs.getString(1));
+                }
+            }
+
+            return String.join("\n", plan);
+        } catch (SQLException e) {
+            return "EXPLAIN failed: " + e.getMessage();
+        }
+    }
+
+    private static boolean isExplainable(final String sql) {
+        String statement = sql.stripLeading().toUpperCase(Locale.ROOT);
+
+        return statement.startsWith("SELECT")
+                || statement.startsWith("UPDATE")
+                || statement.startsWith("DELETE")
+                || statement.startsWith("INSERT")
+                || statement.startsWith("MERGE");
+    }
+
+    private static String redact(final Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+
+        return value instanceof Number || value instanceof Boolean ? value.toString() : REDACTED;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(final Class<T> type, final InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(SlowQueryDataSource.class.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    private static Object invoke(final Object target, final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        private ConnectionHandler(final Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            Object result = SlowQueryDataSource.invoke(target, method, args);
+
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+
+                return proxy(method.getReturnType(), new StatementHandler(statement, sql));
+            }
+
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String sql;
+        private final Map<Integer, Object> parameters = new TreeMap<>();
+        private int batchSize;
+
+        private StatementHandler(final Statement target, final String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            String name = method.getName();
+
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                parameters.put(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (name.equals("addBatch")) {
+                batchSize++;
+            } else if (name.equals("clearBatch")) {
+                batchSize = 0;
+            }
+
+            return SlowQueryDataSource.invoke(target, method, args);
+        }
+
+        private Object execute(final Method method, final Object[] args) throws Throwable {
+            String executed = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+            List<Object> bound = new ArrayList<>(parameters.values());
+            int batch = batchSize;
+            long started = System.nanoTime();
+            Object result = SlowQueryDataSource.invoke(target, method, args);
+            long elapsed = System.nanoTime() - started;
+
+            // Only result sets of queries already found slow are wrapped, to count their rows.
+            if (result instanceof ResultSet resultSet) {
+                SlowQuery entry = record(executed, bound, elapsed, -1, batch);
+
+                return entry == null ? resultSet : proxy(ResultSet.class, new RowCountingHandler(resultSet, entry));
+            }
+
+            if (result instanceof int[] counts) {
+                batchSize = 0;
+                record(executed, bound, elapsed, sum(counts), batch);
+            } else if (result instanceof long[] counts) {
+                batchSize = 0;
+                record(executed, bound, elapsed, sum(counts), batch);
+            } else if (result instanceof Number count) {
+                record(executed, bound, elapsed, count.longValue(), batch);
+            } else {
+                record(executed, bound, elapsed, -1, batch);
+            }
+
+            return result;
+        }
+
+        private static long sum(final int[] counts) {
+            long rows = 0;
+
+            for (int count : counts) {
+                rows += Math.max(count, 0);
+            }
+
+            return rows;
+        }
+
+        private static long sum(final long[] counts) {
+            long rows = 0;
+
+            for (long count : counts) {
+                rows += Math.max(count, 0);
+            }
+
+            return rows;
+        }
+    }
+
+    private final class RowCountingHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final SlowQuery entry;
+        private long rows;
+        private boolean counted;
+
+        private RowCountingHandler(final ResultSet target, final SlowQuery entry) {
+            this.target = target;
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            Object result = SlowQueryDataSource.invoke(target, method, args);
+
+            if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                rows++;
+            } else if (method.getName().equals("next") || method.getName().equals("close")) {
+                finish();
+            }
+
+            return result;
+        }
+
+        private void finish() {
+            if (!counted) {
+                counted = true;
+                slowQueryLog.attachRows(entry, rows);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+@Component
+@ConditionalOnProperty(name = "filmorate.slow-query.enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryDataSourcePostProcessor implements BeanPostProcessor {
+    private final ObjectProvider<SlowQueryLog> slowQueryLog;
+    private final long thresholdMs;
+    private final boolean explain;
+
+    public SlowQueryDataSourcePostProcessor(
+            final ObjectProvider<SlowQueryLog> slowQueryLog,
+            @Value("${filmorate.slow-query.threshold-ms:200}") final long thresholdMs,
+            @Value("${filmorate.slow-query.explain:true}") final boolean explain
+    ) {
+        this.slowQueryLog = slowQueryLog;
+        this.thresholdMs = thresholdMs;
+        this.explain = explain;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof SlowQueryDataSource)) {
+            return new SlowQueryDataSource(dataSource, slowQueryLog.getObject(), thresholdMs, explain);
+        }
+
+        return bean;
+    }
+}
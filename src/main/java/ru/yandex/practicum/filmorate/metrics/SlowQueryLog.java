@@ -0,0 +1,80 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.SlowQuery;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class SlowQueryLog {
+    private final int capacity;
+    private final Deque<SlowQuery> entries;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public SlowQueryLog(@Value("${filmorate.slow-query.capacity:100}") final int capacity) {
+        this.capacity = capacity;
+        this.entries = new ArrayDeque<>(capacity);
+    }
+
+    public void add(final SlowQuery entry) {
+        lock.lock();
+        try {
+            if (entries.size() == capacity) {
+                entries.removeFirst();
+            }
+
+            entries.addLast(entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void attachPlan(final SlowQuery entry, final String plan) {
+        lock.lock();
+        try {
+            entry.setPlan(plan);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void attachRows(final SlowQuery entry, final long rows) {
+        lock.lock();
+        try {
+            entry.setRows(rows);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<SlowQuery> recent(final int limit) {
+        lock.lock();
+        try {
+            List<SlowQuery> recent = new ArrayList<>(Math.min(limit, entries.size()));
+            Iterator<SlowQuery> iterator = entries.descendingIterator();
+
+            while (recent.size() < limit && iterator.hasNext()) {
+                recent.add(iterator.next().toBuilder().build());
+            }
+
+            return recent;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BatchSummary {
+    private static final int ERRORS_LIMIT = 100;
+
+    private long processed;
+    private long created;
+    private long skipped;
+    private final List<BatchError> errors = new ArrayList<>();
+
+    public void addError(final int index, final String error) {
+        skipped++;
+
+        if (errors.size() < ERRORS_LIMIT) {
+            errors.add(new BatchError(index, error));
+        }
+    }
+}
@@ -5,7 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class Genre {
     private Long id;
     @JsonInclude(value = JsonInclude.Include.NON_NULL)
@@ -0,0 +1,19 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder(toBuilder = true)
+public class SlowQuery {
+    private Instant timestamp;
+    private String sql;
+    private List<String> parameters;
+    private long durationMs;
+    private long rows;
+    private int batchSize;
+    private String plan;
+}
@@ -1,5 +1,6 @@
 package ru.yandex.practicum.filmorate.repository;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataAccessException;
@@ -8,6 +9,7 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.yandex.practicum.filmorate.exception.InternalErrorException;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.Genre;
@@ -15,18 +17,26 @@ import ru.yandex.practicum.filmorate.model.Mpa;
 import ru.yandex.practicum.filmorate.repository.contracts.FilmRepository;
 import ru.yandex.practicum.filmorate.repository.contracts.GenreRepository;
 import ru.yandex.practicum.filmorate.repository.contracts.MpaRepository;
+import ru.yandex.practicum.filmorate.repository.contracts.SearchField;
+import ru.yandex.practicum.filmorate.repository.index.FilmSearchIndex;
+import ru.yandex.practicum.filmorate.repository.index.PopularFilmIndex;
 import ru.yandex.practicum.filmorate.repository.mappers.FilmRowMapper;
 
 import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -35,11 +45,30 @@ import java.util.stream.Collectors;
 public class FilmDbRepository implements FilmRepository {
     public static final String TABLE_NAME = "films";
     private static final String FILM_GENRE_TABLE_NAME = "film_genre";
+    private static final int STREAM_PAGE_SIZE = 500;
 
     private final JdbcTemplate jdbc;
     private final GenreRepository genreRepository;
     private final MpaRepository mpaRepository;
+    private final PopularFilmIndex popularFilmIndex;
+    private final FilmSearchIndex filmSearchIndex;
     private final FilmRowMapper mapper = new FilmRowMapper();
+    private final AtomicLong version = new AtomicLong();
+
+    @PostConstruct
+    public void seedSearchIndex() {
+        int[] indexed = {0};
+
+        jdbc.query(
+                "SELECT id, name, description FROM " + TABLE_NAME,
+                rs -> {
+                    filmSearchIndex.put(rs.getLong("id"), rs.getString("name"), rs.getString("description"));
+                    indexed[0]++;
+                }
+        );
+
+        log.info("Film search index seeded with {} films", indexed[0]);
+    }
 
     @Override
     public List<Film> getAll() {
@@ -57,6 +86,41 @@ public class FilmDbRepository implements FilmRepository {
         return films;
     }
 
+    @Override
+    public List<Film> getPage(final Long after, final int limit) {
+        List<Film> films = jdbc.query(
+                "SELECT f.*, m.name mpa_name " +
+                        "FROM " + TABLE_NAME + " AS f " +
+                        "LEFT JOIN " + MpaDbRepository.TABLE_NAME + " AS m ON m.id = f.mpa_id " +
+                        "WHERE f.id > ? " +
+                        "ORDER BY f.id " +
+                        "LIMIT ?",
+                mapper,
+                after,
+                limit
+        );
+
+        fillGenreForFilmList(films);
+
+        return films;
+    }
+
+    // Pages are read by key, so no connection is held while the client consumes a page.
+    @Override
+    public void streamAll(final Consumer<Film> consumer) {
+        long after = 0;
+        List<Film> page;
+
+        do {
+            page = getPage(after, STREAM_PAGE_SIZE);
+            page.forEach(consumer);
+
+            if (!page.isEmpty()) {
+                after = page.getLast().getId();
+            }
+        } while (page.size() == STREAM_PAGE_SIZE);
+    }
+
     @Override
     public Film findById(final Long id) {
         try {
@@ -78,6 +142,7 @@ public class FilmDbRepository implements FilmRepository {
     }
 
     @Override
+    @Transactional
     public Film create(final Film film) {
         KeyHolder keyHolder = new GeneratedKeyHolder();
         Mpa mpa = getMpaByObject(film.getMpa());
@@ -114,16 +179,86 @@ public class FilmDbRepository implements FilmRepository {
 
         film.setId(id);
         addRelations(film);
+        AfterCommit.run(() -> {
+            popularFilmIndex.addFilm(id);
+            filmSearchIndex.put(id, film.getName(), film.getDescription());
+        });
+        fillFromDictionaries(film, mpa);
+        bumpVersion();
 
         return film;
     }
 
     @Override
+    @Transactional
+    public List<Film> createAll(final List<Film> films) {
+        if (films.isEmpty()) {
+            return films;
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        try {
+            jdbc.batchUpdate(
+                    conn -> conn.prepareStatement(
+                            "INSERT INTO " + TABLE_NAME + " (mpa_id, name, description, release_date, duration) " +
+                                    "VALUES (?, ?, ?, ?, ?)",
+                            new String[] {"id"}
+                    ),
+                    new BatchPreparedStatementSetter() {
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            Film film = films.get(i);
+                            Mpa mpa = getMpaByObject(film.getMpa());
+
+                            ps.setLong(1, mpa == null ? 0L : mpa.getId());
+                            ps.setString(2, film.getName());
+                            ps.setString(3, film.getDescription());
+                            ps.setDate(4, Date.valueOf(film.getReleaseDate()));
+                            ps.setInt(5, film.getDuration());
+                        }
+
+                        public int getBatchSize() {
+                            return films.size();
+                        }
+                    },
+                    keyHolder
+            );
+        } catch (DataAccessException e) {
+            log.error(e.getMessage(), e);
+            throw new InternalErrorException("Error on saving data");
+        }
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+
+        if (keys.size() != films.size()) {
+            throw new InternalErrorException("Error on saving data");
+        }
+
+        for (int i = 0; i < films.size(); i++) {
+            films.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+        }
+
+        addRelations(films);
+        films.forEach(film -> fillFromDictionaries(film, getMpaByObject(film.getMpa())));
+        AfterCommit.run(() -> {
+            films.forEach(film -> {
+                popularFilmIndex.addFilm(film.getId());
+                filmSearchIndex.put(film.getId(), film.getName(), film.getDescription());
+            });
+        });
+        bumpVersion();
+
+        return films;
+    }
+
+    @Override
+    @Transactional
     public Film update(final Film film) {
         Mpa mpa = getMpaByObject(film.getMpa());
+        int updated;
 
         try {
-            jdbc.update(
+            updated = jdbc.update(
                     "UPDATE " + TABLE_NAME + " " +
                             "SET mpa_id = ?, name = ?, description = ?, release_date = ?, duration = ? " +
                             "WHERE id = ?",
@@ -139,25 +274,86 @@ public class FilmDbRepository implements FilmRepository {
             throw new InternalErrorException("Error on updating data");
         }
 
-        deleteFilmGenres(film.getId());
-        addRelations(film);
+        if (updated == 0) {
+            return null;
+        }
+
+        updateRelations(film);
+        fillFromDictionaries(film, mpa);
+
+        Long id = film.getId();
+        String name = film.getName();
+        String description = film.getDescription();
 
-        return findById(film.getId());
+        AfterCommit.run(() -> filmSearchIndex.put(id, name, description));
+        bumpVersion();
+
+        return film;
     }
 
     @Override
     public List<Film> getPopular(int count) {
-        return jdbc.query(
-                "SELECT f.*, m.name mpa_name, COUNT(l.film_id) like_cnt " +
-                        "FROM " + TABLE_NAME + " AS f " +
-                        "LEFT JOIN " + LikeDbRepository.TABLE_NAME + " as l ON (l.film_id = f.id) " +
-                        "LEFT JOIN " + MpaDbRepository.TABLE_NAME + " as m ON (m.id = f.mpa_id) " +
-                        "GROUP BY f.id " +
-                        "ORDER BY like_cnt DESC " +
-                        "LIMIT ?",
-                mapper,
-                count
-        );
+        return findByIds(popularFilmIndex.top(count));
+    }
+
+    @Override
+    public List<Film> getPopular(final int count, final Long genreId, final Integer year) {
+        StringBuilder sql = new StringBuilder("SELECT f.id FROM " + TABLE_NAME + " AS f ");
+        List<Object> params = new ArrayList<>();
+
+        if (genreId != null) {
+            sql.append("INNER JOIN " + FILM_GENRE_TABLE_NAME + " AS fg " +
+                    "ON fg.film_id = f.id AND fg.genre_id = ? ");
+            params.add(genreId);
+        }
+
+        if (year != null) {
+            sql.append("WHERE f.release_date >= ? AND f.release_date < ? ");
+            params.add(Date.valueOf(LocalDate.of(year, 1, 1)));
+            params.add(Date.valueOf(LocalDate.of(year + 1, 1, 1)));
+        }
+
+        sql.append("ORDER BY f.like_count DESC, f.id LIMIT ?");
+        params.add(count);
+
+        try {
+            return findByIds(jdbc.queryForList(sql.toString(), Long.class, params.toArray()));
+        } catch (DataAccessException e) {
+            throw new InternalErrorException("Error on getting popular films");
+        }
+    }
+
+    @Override
+    public List<Film> findByIds(final List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, Film> films = HashMap.newHashMap(ids.size());
+
+        for (Object[] bucket : InClause.buckets(ids)) {
+            jdbc.query(
+                    "SELECT f.*, m.name mpa_name " +
+                            "FROM " + TABLE_NAME + " AS f " +
+                            "LEFT JOIN " + MpaDbRepository.TABLE_NAME + " AS m ON m.id = f.mpa_id " +
+                            "WHERE f.id IN (" + InClause.placeholders(bucket.length) + ")",
+                    rs -> {
+                        Film film = mapper.mapRow(rs, rs.getRow());
+                        films.put(film.getId(), film);
+                    },
+                    bucket
+            );
+        }
+
+        List<Film> ordered = ids.stream().map(films::get).filter(Objects::nonNull).collect(Collectors.toList());
+        fillGenreForFilmList(ordered);
+
+        return ordered;
+    }
+
+    @Override
+    public List<Film> search(final String query, final Set<SearchField> fields, final int count) {
+        return findByIds(filmSearchIndex.search(query, fields, count));
     }
 
     @Override
@@ -173,6 +369,15 @@ public class FilmDbRepository implements FilmRepository {
         }
     }
 
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    private void bumpVersion() {
+        AfterCommit.run(version::incrementAndGet);
+    }
+
     private Mpa getMpaByObject(Mpa mpa) {
         if (mpa == null || mpa.getId() == null) {
             return null;
@@ -215,18 +420,85 @@ public class FilmDbRepository implements FilmRepository {
         }
     }
 
-    private void deleteFilmGenres(Long filmId) {
-        if (filmId == null) {
+    private void addRelations(List<Film> films) {
+        List<Object[]> rows = new ArrayList<>();
+
+        films.forEach(film -> film.getGenres().stream()
+                .filter(Objects::nonNull)
+                .map(Genre::getId)
+                .distinct()
+                .forEach(genreId -> rows.add(new Object[] {film.getId(), genreId}))
+        );
+
+        if (rows.isEmpty()) {
             return;
         }
 
         try {
-            jdbc.update("DELETE FROM " + FILM_GENRE_TABLE_NAME + " WHERE film_id = ?", filmId);
+            jdbc.batchUpdate(
+                    "INSERT INTO " + FILM_GENRE_TABLE_NAME + " (film_id, genre_id) VALUES (?, ?)",
+                    rows
+            );
         } catch (DataAccessException e) {
-            throw new InternalErrorException(e.getMessage());
+            log.error(e.getMessage(), e);
+            throw new InternalErrorException("Error on saving film genre");
         }
     }
 
+    private void updateRelations(Film film) {
+        Set<Long> genreIds = film.getGenres().stream()
+                .filter(Objects::nonNull)
+                .map(Genre::getId)
+                .collect(Collectors.toSet());
+
+        try {
+            Set<Long> currentIds = new HashSet<>(jdbc.queryForList(
+                    "SELECT genre_id FROM " + FILM_GENRE_TABLE_NAME + " WHERE film_id = ?",
+                    Long.class,
+                    film.getId()
+            ));
+
+            List<Object[]> deleted = currentIds.stream()
+                    .filter(genreId -> !genreIds.contains(genreId))
+                    .map(genreId -> new Object[] {film.getId(), genreId})
+                    .toList();
+            List<Object[]> inserted = genreIds.stream()
+                    .filter(genreId -> !currentIds.contains(genreId))
+                    .map(genreId -> new Object[] {film.getId(), genreId})
+                    .toList();
+
+            if (!deleted.isEmpty()) {
+                jdbc.batchUpdate(
+                        "DELETE FROM " + FILM_GENRE_TABLE_NAME + " WHERE film_id = ? AND genre_id = ?",
+                        deleted
+                );
+            }
+
+            if (!inserted.isEmpty()) {
+                jdbc.batchUpdate(
+                        "INSERT INTO " + FILM_GENRE_TABLE_NAME + " (film_id, genre_id) VALUES (?, ?)",
+                        inserted
+                );
+            }
+        } catch (DataAccessException e) {
+            log.error(e.getMessage(), e);
+            throw new InternalErrorException("Error on saving film genre");
+        }
+    }
+
+    private void fillFromDictionaries(Film film, Mpa mpa) {
+        film.setMpa(mpa);
+
+        Set<Genre> genres = film.getGenres().stream()
+                .filter(Objects::nonNull)
+                .map(genre -> genreRepository.findById(genre.getId()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        film.getGenres().clear();
+        film.getGenres().addAll(genres);
+    }
+
     private void fillGenreForFilm(Film film) {
         if (film == null) {
             return;
@@ -1,49 +1,189 @@
 package ru.yandex.practicum.filmorate.repository;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.yandex.practicum.filmorate.exception.InternalErrorException;
+import ru.yandex.practicum.filmorate.model.Friendship;
 import ru.yandex.practicum.filmorate.model.User;
 import ru.yandex.practicum.filmorate.repository.contracts.FriendshipRepository;
+import ru.yandex.practicum.filmorate.repository.contracts.WriteOutcome;
+import ru.yandex.practicum.filmorate.repository.index.FriendGraph;
 import ru.yandex.practicum.filmorate.repository.mappers.UserRowMapper;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
+@Slf4j
 @Repository
 @RequiredArgsConstructor
 public class FriendshipDbRepository implements FriendshipRepository {
 
     public static final String TABLE_NAME = "friendship";
+    private static final String ADD_FRIEND_SQL = "INSERT INTO " + TABLE_NAME + " (user_id, friend_id, active) " +
+            "SELECT u.id, f.id, false " +
+            "FROM " + UserDbRepository.TABLE_NAME + " AS u " +
+            "INNER JOIN " + UserDbRepository.TABLE_NAME + " AS f ON f.id = ? " +
+            "WHERE u.id = ? " +
+            "AND NOT EXISTS (" +
+            "SELECT 1 FROM " + TABLE_NAME + " AS fs WHERE fs.user_id = u.id AND fs.friend_id = f.id" +
+            ")";
+    private static final int LOCK_STRIPES = 64;
 
     private final JdbcTemplate jdbc;
+    private final FriendGraph friendGraph;
     private final UserRowMapper userRowMapper = new UserRowMapper();
+    // A user's edges are written and applied to the graph under one stripe, so the graph sees writes in DB order.
+    private final Lock[] userLocks = newLocks();
+
+    @PostConstruct
+    public void seedFriendGraph() {
+        Map<Long, long[]> adjacency = readAdjacency();
+
+        friendGraph.seed(adjacency);
+        log.info("Friend graph seeded with {} users", adjacency.size());
+    }
 
     @Override
-    public void addFriend(final Long userId, final Long friendId) {
+    @Transactional(readOnly = true)
+    public int reconcileFriendGraph() {
+        long mark = friendGraph.mark();
+        Map<Long, long[]> adjacency;
+
         try {
-            jdbc.update(
-                    "INSERT INTO " + TABLE_NAME + " (user_id, friend_id, active) VALUES (?, ?, ?)",
-                    userId,
-                    friendId,
-                    false
-            );
+            adjacency = readAdjacency();
+        } catch (DataAccessException e) {
+            throw new InternalErrorException("Error on reconciling friend graph");
+        }
+
+        return friendGraph.reconcile(adjacency, mark);
+    }
+
+    private Map<Long, long[]> readAdjacency() {
+        Map<Long, long[]> adjacency = new HashMap<>();
+        long[] userId = {-1L};
+        long[][] friends = {new long[16]};
+        int[] size = {0};
+
+        jdbc.query(
+                "SELECT user_id, friend_id FROM " + TABLE_NAME + " ORDER BY user_id, friend_id",
+                rs -> {
+                    long currentUserId = rs.getLong("user_id");
+
+                    if (currentUserId != userId[0]) {
+                        if (size[0] > 0) {
+                            adjacency.put(userId[0], Arrays.copyOf(friends[0], size[0]));
+                        }
+
+                        userId[0] = currentUserId;
+                        size[0] = 0;
+                    }
+
+                    if (size[0] == friends[0].length) {
+                        friends[0] = Arrays.copyOf(friends[0], size[0] * 2);
+                    }
+
+                    friends[0][size[0]++] = rs.getLong("friend_id");
+                }
+        );
+
+        if (size[0] > 0) {
+            adjacency.put(userId[0], Arrays.copyOf(friends[0], size[0]));
+        }
+
+        return adjacency;
+    }
+
+    @Override
+    public WriteOutcome addFriend(final Long userId, final Long friendId) {
+        Lock lock = lockFor(userId);
+
+        lock.lock();
+        try {
+            if (jdbc.update(ADD_FRIEND_SQL, friendId, userId) == 0) {
+                return findMissing(userId, friendId);
+            }
+
+            friendGraph.add(userId, friendId);
+
+            return WriteOutcome.APPLIED;
+        } catch (DataIntegrityViolationException e) {
+            return findMissing(userId, friendId);
         } catch (DataAccessException e) {
             throw new InternalErrorException("Error on adding friend");
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
-    public void deleteFriend(final Long userId, final Long friendId) {
+    @Transactional
+    public int addFriends(final List<Friendship> friendships) {
+        if (friendships.isEmpty()) {
+            return 0;
+        }
+
         try {
-            jdbc.update(
+            int[] inserted = jdbc.batchUpdate(
+                    ADD_FRIEND_SQL,
+                    friendships.stream()
+                            .map(friendship -> new Object[] {friendship.getFriendId(), friendship.getUserId()})
+                            .toList()
+            );
+
+            Map<Long, List<Long>> friendsByUser = new HashMap<>();
+            int created = 0;
+
+            for (int i = 0; i < inserted.length; i++) {
+                if (inserted[i] > 0) {
+                    Friendship friendship = friendships.get(i);
+                    friendsByUser.computeIfAbsent(friendship.getUserId(), id -> new ArrayList<>())
+                            .add(friendship.getFriendId());
+                    created += inserted[i];
+                }
+            }
+
+            AfterCommit.run(() -> friendsByUser.forEach(this::applyCommitted));
+
+            return created;
+        } catch (DataAccessException e) {
+            throw new InternalErrorException("Error on adding friends");
+        }
+    }
+
+    @Override
+    public WriteOutcome deleteFriend(final Long userId, final Long friendId) {
+        Lock lock = lockFor(userId);
+
+        lock.lock();
+        try {
+            int deleted = jdbc.update(
                     "DELETE FROM " + TABLE_NAME + " WHERE user_id = ? AND friend_id = ?",
                     userId,
                     friendId
             );
+
+            if (deleted == 0) {
+                return findMissing(userId, friendId);
+            }
+
+            friendGraph.remove(userId, friendId);
+
+            return WriteOutcome.APPLIED;
         } catch (DataAccessException e) {
             throw new InternalErrorException("Error on deleting friend");
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -65,19 +205,83 @@ public class FriendshipDbRepository implements FriendshipRepository {
     }
 
     @Override
-    public List<User> findCommonFriends(Long userId, Long friendId) {
+    public List<Long> findCommonFriendIds(final Long userId, final Long friendId) {
+        return friendGraph.common(userId, friendId);
+    }
+
+    @Override
+    public List<Long> findRecommendedFriendIds(final Long userId, final int count) {
+        return friendGraph.recommend(userId, count);
+    }
+
+    // Batch edges were committed without the stripe held, so their state is read again under it before applying.
+    private void applyCommitted(final Long userId, final List<Long> friendIds) {
+        Lock lock = lockFor(userId);
+
+        lock.lock();
         try {
-            return jdbc.query(
-                    "SELECT f.* " +
-                            "FROM " + UserDbRepository.TABLE_NAME + " AS f " +
-                            "WHERE f.id IN (SELECT fs1.friend_id FROM " + TABLE_NAME + " AS fs1 WHERE fs1.user_id = ?) " +
-                            "AND f.id IN (SELECT fs2.friend_id FROM " + TABLE_NAME + " AS fs2 WHERE fs2.user_id = ?)",
-                    userRowMapper,
+            List<Long> present = jdbc.queryForList(
+                    "SELECT friend_id FROM " + TABLE_NAME + " " +
+                            "WHERE user_id = ? AND friend_id IN (" + InClause.placeholders(friendIds.size()) + ")",
+                    Long.class,
+                    concat(userId, friendIds)
+            );
+
+            friendGraph.apply(
                     userId,
-                    friendId
+                    present,
+                    friendIds.stream().filter(friendId -> !present.contains(friendId)).toList()
             );
         } catch (DataAccessException e) {
-            throw new InternalErrorException("Error on getting user friends");
+            log.error("Friend graph not updated for user {}, reconcile will repair it", userId, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Lock lockFor(final Long userId) {
+        return userLocks[Math.floorMod(Long.hashCode(userId), LOCK_STRIPES)];
+    }
+
+    private static Lock[] newLocks() {
+        Lock[] locks = new Lock[LOCK_STRIPES];
+
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+
+        return locks;
+    }
+
+    private static Object[] concat(final Long userId, final List<Long> friendIds) {
+        Object[] params = new Object[friendIds.size() + 1];
+        params[0] = userId;
+
+        for (int i = 0; i < friendIds.size(); i++) {
+            params[i + 1] = friendIds.get(i);
         }
+
+        return params;
+    }
+
+    private WriteOutcome findMissing(final Long userId, final Long friendId) {
+        return jdbc.queryForObject(
+                "SELECT " +
+                        "EXISTS (SELECT 1 FROM " + UserDbRepository.TABLE_NAME + " WHERE id = ?) AS user_exists, " +
+                        "EXISTS (SELECT 1 FROM " + UserDbRepository.TABLE_NAME + " WHERE id = ?) AS friend_exists",
+                (rs, rowNum) -> {
+                    if (!rs.getBoolean("user_exists")) {
+                        return WriteOutcome.USER_NOT_FOUND;
+                    }
+
+                    if (!rs.getBoolean("friend_exists")) {
+                        return WriteOutcome.FRIEND_NOT_FOUND;
+                    }
+
+                    return WriteOutcome.UNCHANGED;
+                },
+                userId,
+                friendId
+        );
     }
 }
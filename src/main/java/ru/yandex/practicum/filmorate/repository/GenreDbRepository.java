@@ -3,7 +3,6 @@ package ru.yandex.practicum.filmorate.repository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Repository;
 import ru.yandex.practicum.filmorate.model.Genre;
 import ru.yandex.practicum.filmorate.repository.contracts.GenreRepository;
@@ -13,7 +12,6 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Repository
 @RequiredArgsConstructor
@@ -46,27 +44,20 @@ public class GenreDbRepository implements GenreRepository {
 
     @Override
     public Map<Long, List<Genre>> findByFilmId(final List<Long> filmIds) {
-        Map<Long, List<Genre>> genresMap = new HashMap<>();
-        SqlRowSet rowSet = jdbc.queryForRowSet(
-                String.format(
+        Map<Long, List<Genre>> genresMap = HashMap.newHashMap(filmIds.size());
+
+        for (Object[] bucket : InClause.buckets(filmIds)) {
+            jdbc.query(
                     "SELECT g.*, fg.film_id " +
                     "FROM " + TABLE_NAME + " AS g " +
                     "INNER JOIN " + FILM_GENRE_TABLE_NAME + " AS fg ON fg.genre_id = g.id " +
-                    "WHERE fg.film_id IN (%s)",
-                    filmIds.stream().map(el -> Long.toString(el)).collect(Collectors.joining(","))
-                )
-        );
-        while (rowSet.next()) {
-            Genre genre = Genre.builder()
-                    .id(rowSet.getLong("id"))
-                    .name(rowSet.getString("name"))
-                    .build();
-
-            Long filmId = rowSet.getLong("film_id");
-            List<Genre> genres = genresMap.getOrDefault(filmId, new ArrayList<>());
-            genres.add(genre);
-
-            genresMap.put(filmId, genres);
+                    "WHERE fg.film_id IN (" + InClause.placeholders(bucket.length) + ")",
+                    rs -> {
+                        genresMap.computeIfAbsent(rs.getLong("film_id"), filmId -> new ArrayList<>())
+                                .add(mapper.mapRow(rs, rs.getRow()));
+                    },
+                    bucket
+            );
         }
 
         return genresMap;
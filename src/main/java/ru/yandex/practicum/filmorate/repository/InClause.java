@@ -0,0 +1,42 @@
+package ru.yandex.practicum.filmorate.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public final class InClause {
+    private static final int[] BUCKET_SIZES = {10, 100, 500};
+
+    private InClause() {
+    }
+
+    public static List<Object[]> buckets(final List<?> values) {
+        int maxSize = BUCKET_SIZES[BUCKET_SIZES.length - 1];
+        List<Object[]> buckets = new ArrayList<>(values.size() / maxSize + 1);
+
+        for (int from = 0; from < values.size(); from += maxSize) {
+            List<?> chunk = values.subList(from, Math.min(from + maxSize, values.size()));
+            Object[] params = Arrays.copyOf(chunk.toArray(), bucketSize(chunk.size()));
+            Arrays.fill(params, chunk.size(), params.length, chunk.getLast());
+
+            buckets.add(params);
+        }
+
+        return buckets;
+    }
+
+    public static String placeholders(final int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    private static int bucketSize(final int count) {
+        for (int size : BUCKET_SIZES) {
+            if (count <= size) {
+                return size;
+            }
+        }
+
+        return count;
+    }
+}
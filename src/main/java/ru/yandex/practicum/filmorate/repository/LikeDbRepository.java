@@ -1,41 +1,326 @@
 package ru.yandex.practicum.filmorate.repository;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.yandex.practicum.filmorate.exception.InternalErrorException;
+import ru.yandex.practicum.filmorate.model.Like;
 import ru.yandex.practicum.filmorate.repository.contracts.LikeRepository;
+import ru.yandex.practicum.filmorate.repository.contracts.WriteOutcome;
+import ru.yandex.practicum.filmorate.repository.index.LikeMatrix;
+import ru.yandex.practicum.filmorate.repository.index.PopularFilmIndex;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
 @Repository
 @RequiredArgsConstructor
 public class LikeDbRepository implements LikeRepository {
     public static final String TABLE_NAME = "film_like";
+    private static final String ADD_LIKE_SQL = "INSERT INTO " + TABLE_NAME + " (film_id, user_id) " +
+            "SELECT f.id, u.id " +
+            "FROM " + FilmDbRepository.TABLE_NAME + " AS f " +
+            "INNER JOIN " + UserDbRepository.TABLE_NAME + " AS u ON u.id = ? " +
+            "WHERE f.id = ? " +
+            "AND NOT EXISTS (" +
+            "SELECT 1 FROM " + TABLE_NAME + " AS l WHERE l.film_id = f.id AND l.user_id = u.id" +
+            ")";
+    private static final String DELETE_LIKE_SQL = "DELETE FROM " + TABLE_NAME + " WHERE film_id = ? AND user_id = ?";
 
     private final JdbcTemplate jdbc;
+    private final PopularFilmIndex popularFilmIndex;
+    private final LikeMatrix likeMatrix;
+
+    @PostConstruct
+    public void seedIndexes() {
+        seedPopularIndex();
+        seedLikeMatrix();
+    }
+
+    private void seedPopularIndex() {
+        Map<Long, Long> likeCounts = readLikeCounts();
+
+        popularFilmIndex.seed(likeCounts);
+        log.info("Popular films index seeded with {} films", likeCounts.size());
+    }
+
+    private void seedLikeMatrix() {
+        int users = likeMatrix.seed(likes -> jdbc.query(
+                "SELECT film_id, user_id FROM " + TABLE_NAME,
+                rs -> {
+                    likes.accept(rs.getLong("film_id"), rs.getLong("user_id"));
+                }
+        ));
+
+        log.info("Like matrix seeded with {} users", users);
+    }
 
     @Override
-    public void addLike(final Long filmId, final Long userId) {
+    @Transactional
+    public WriteOutcome addLike(final Long filmId, final Long userId) {
+        IndexUpdate indexUpdate = new IndexUpdate(List.of(filmId), List.of(userId));
+
         try {
-            jdbc.update(
-                    "INSERT INTO " + TABLE_NAME + " (film_id, user_id) VALUES (?, ?)",
-                    filmId,
-                    userId
-            );
+            int inserted = jdbc.update(ADD_LIKE_SQL, userId, filmId);
+
+            if (inserted == 0) {
+                return findMissing(filmId, userId);
+            }
+
+            changeLikeCount(filmId, 1);
+        } catch (DataIntegrityViolationException e) {
+            return findMissing(filmId, userId);
         } catch (DataAccessException e) {
             throw new InternalErrorException("Error on adding like");
         }
+
+        indexUpdate.apply(Like.builder().filmId(filmId).userId(userId).build(), 1);
+
+        return WriteOutcome.APPLIED;
     }
 
     @Override
-    public void deleteLike(final Long filmId, final Long userId) {
+    @Transactional
+    public WriteOutcome deleteLike(final Long filmId, final Long userId) {
+        IndexUpdate indexUpdate = new IndexUpdate(List.of(filmId), List.of(userId));
+
         try {
-            jdbc.update(
-                    "DELETE FROM " + TABLE_NAME + " WHERE film_id = ? AND user_id = ?",
-                    filmId,
-                    userId
+            int deleted = jdbc.update(DELETE_LIKE_SQL, filmId, userId);
+
+            if (deleted == 0) {
+                return findMissing(filmId, userId);
+            }
+
+            changeLikeCount(filmId, -1);
+        } catch (DataAccessException e) {
+            throw new InternalErrorException("Error on deleting like");
+        }
+
+        indexUpdate.apply(Like.builder().filmId(filmId).userId(userId).build(), -1);
+
+        return WriteOutcome.APPLIED;
+    }
+
+    @Override
+    @Transactional
+    public int addLikes(final List<Like> likes) {
+        IndexUpdate indexUpdate = new IndexUpdate(
+                likes.stream().map(Like::getFilmId).toList(),
+                likes.stream().map(Like::getUserId).toList()
+        );
+
+        try {
+            int[] inserted = jdbc.batchUpdate(
+                    ADD_LIKE_SQL,
+                    likes.stream().map(like -> new Object[] {like.getUserId(), like.getFilmId()}).toList()
+            );
+
+            return applyLikeCounts(likes, inserted, 1, indexUpdate);
+        } catch (DataAccessException e) {
+            log.error(e.getMessage(), e);
+            throw new InternalErrorException("Error on adding likes");
+        }
+    }
+
+    @Override
+    @Transactional
+    public int deleteLikes(final List<Like> likes) {
+        IndexUpdate indexUpdate = new IndexUpdate(
+                likes.stream().map(Like::getFilmId).toList(),
+                likes.stream().map(Like::getUserId).toList()
+        );
+
+        try {
+            int[] deleted = jdbc.batchUpdate(
+                    DELETE_LIKE_SQL,
+                    likes.stream().map(like -> new Object[] {like.getFilmId(), like.getUserId()}).toList()
             );
-        } catch (DataAccessException ignored) {
+
+            return applyLikeCounts(likes, deleted, -1, indexUpdate);
+        } catch (DataAccessException e) {
+            log.error(e.getMessage(), e);
+            throw new InternalErrorException("Error on deleting likes");
+        }
+    }
+
+    @Override
+    public List<Long> findRecommendedFilmIds(final Long userId, final int count) {
+        return likeMatrix.recommend(userId, count);
+    }
+
+    @Override
+    @Transactional
+    public int reconcileLikeCounts() {
+        long mark = popularFilmIndex.mark();
+        int repaired;
+        Map<Long, Long> likeCounts;
+
+        try {
+            repaired = jdbc.update(
+                    "UPDATE " + FilmDbRepository.TABLE_NAME + " AS f " +
+                            "SET like_count = (SELECT COUNT(*) FROM " + TABLE_NAME + " AS l WHERE l.film_id = f.id) " +
+                            "WHERE f.like_count <> (SELECT COUNT(*) FROM " + TABLE_NAME + " AS l WHERE l.film_id = f.id)"
+            );
+            likeCounts = readLikeCounts();
+        } catch (DataAccessException e) {
+            throw new InternalErrorException("Error on reconciling like counts");
+        }
+
+        // The index is checked even when the table was consistent, films written since the mark are left alone.
+        AfterCommit.run(() -> {
+            int corrected = popularFilmIndex.reconcile(likeCounts, mark);
+
+            if (corrected > 0) {
+                log.warn("Popular films index corrected for {} films", corrected);
+            }
+        });
+
+        return repaired;
+    }
+
+    @Override
+    public int reconcileLikeMatrix() {
+        long mark = likeMatrix.mark();
+
+        try {
+            return likeMatrix.reconcile(
+                    likes -> jdbc.query(
+                            "SELECT film_id, user_id FROM " + TABLE_NAME + " ORDER BY user_id, film_id",
+                            rs -> {
+                                likes.accept(rs.getLong("film_id"), rs.getLong("user_id"));
+                            }
+                    ),
+                    mark
+            );
+        } catch (DataAccessException e) {
+            throw new InternalErrorException("Error on reconciling like matrix");
+        }
+    }
+
+    private Map<Long, Long> readLikeCounts() {
+        Map<Long, Long> likeCounts = new HashMap<>();
+
+        jdbc.query(
+                "SELECT id, like_count FROM " + FilmDbRepository.TABLE_NAME,
+                rs -> {
+                    likeCounts.put(rs.getLong("id"), rs.getLong("like_count"));
+                }
+        );
+
+        return likeCounts;
+    }
+
+    private WriteOutcome findMissing(final Long filmId, final Long userId) {
+        return jdbc.queryForObject(
+                "SELECT " +
+                        "EXISTS (SELECT 1 FROM " + FilmDbRepository.TABLE_NAME + " WHERE id = ?) AS film_exists, " +
+                        "EXISTS (SELECT 1 FROM " + UserDbRepository.TABLE_NAME + " WHERE id = ?) AS user_exists",
+                (rs, rowNum) -> {
+                    if (!rs.getBoolean("film_exists")) {
+                        return WriteOutcome.FILM_NOT_FOUND;
+                    }
+
+                    if (!rs.getBoolean("user_exists")) {
+                        return WriteOutcome.USER_NOT_FOUND;
+                    }
+
+                    return WriteOutcome.UNCHANGED;
+                },
+                filmId,
+                userId
+        );
+    }
+
+    private int applyLikeCounts(
+            final List<Like> likes,
+            final int[] counts,
+            final int sign,
+            final IndexUpdate indexUpdate
+    ) {
+        Map<Long, Integer> deltas = new HashMap<>();
+        int changed = 0;
+
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                Like like = likes.get(i);
+                deltas.merge(like.getFilmId(), sign * counts[i], Integer::sum);
+                changed += counts[i];
+            }
+        }
+
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        jdbc.batchUpdate(
+                "UPDATE " + FilmDbRepository.TABLE_NAME + " SET like_count = like_count + ? WHERE id = ?",
+                deltas.entrySet().stream().map(delta -> new Object[] {delta.getValue(), delta.getKey()}).toList()
+        );
+
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                indexUpdate.apply(likes.get(i), sign);
+            }
+        }
+
+        return changed;
+    }
+
+    private void changeLikeCount(final Long filmId, final int delta) {
+        jdbc.update(
+                "UPDATE " + FilmDbRepository.TABLE_NAME + " SET like_count = like_count + ? WHERE id = ?",
+                delta,
+                filmId
+        );
+    }
+
+    // Holds index changes until the transaction ends, films and users stay in flight meanwhile so reconcile skips them.
+    private final class IndexUpdate implements TransactionSynchronization {
+        private final Set<Long> filmIds;
+        private final Set<Long> userIds;
+        private final Map<Long, Long> deltas = new HashMap<>();
+        private final List<Like> added = new ArrayList<>();
+        private final List<Like> removed = new ArrayList<>();
+
+        IndexUpdate(final Collection<Long> filmIds, final Collection<Long> userIds) {
+            this.filmIds = new HashSet<>(filmIds);
+            this.userIds = new HashSet<>(userIds);
+            TransactionSynchronizationManager.registerSynchronization(this);
+            popularFilmIndex.beginChange(this.filmIds);
+            likeMatrix.beginChange(this.userIds);
+        }
+
+        void apply(final Like like, final int sign) {
+            deltas.merge(like.getFilmId(), (long) sign, Long::sum);
+            (sign > 0 ? added : removed).add(like);
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+            if (status != STATUS_COMMITTED) {
+                popularFilmIndex.endChange(filmIds, Map.of());
+                likeMatrix.endChange(userIds);
+                return;
+            }
+
+            popularFilmIndex.endChange(filmIds, deltas);
+            // Writes on one user may apply here out of commit order, the matrix reconcile repairs such users.
+            added.forEach(like -> likeMatrix.add(like.getFilmId(), like.getUserId()));
+            removed.forEach(like -> likeMatrix.remove(like.getFilmId(), like.getUserId()));
+            likeMatrix.endChange(userIds);
         }
     }
 }
@@ -1,21 +1,30 @@
 package ru.yandex.practicum.filmorate.repository;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.yandex.practicum.filmorate.exception.InternalErrorException;
 import ru.yandex.practicum.filmorate.model.User;
 import ru.yandex.practicum.filmorate.repository.contracts.UserRepository;
+import ru.yandex.practicum.filmorate.repository.index.UserIdIndex;
 import ru.yandex.practicum.filmorate.repository.mappers.UserRowMapper;
 
 import java.sql.Date;
 import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Slf4j
 @Repository
@@ -25,8 +34,21 @@ public class UserDbRepository implements UserRepository {
     public static final String TABLE_NAME = "users";
 
     private final JdbcTemplate jdbc;
+    private final UserIdIndex userIdIndex;
     private final UserRowMapper mapper = new UserRowMapper();
 
+    @PostConstruct
+    public void seedUserIdIndex() {
+        long indexed = userIdIndex.seed(ids -> jdbc.query(
+                "SELECT id FROM " + TABLE_NAME,
+                rs -> {
+                    ids.accept(rs.getLong("id"));
+                }
+        ));
+
+        log.info("User id index seeded with {} users", indexed);
+    }
+
     @Override
     public List<User> getAll() {
         return jdbc.query(
@@ -35,6 +57,16 @@ public class UserDbRepository implements UserRepository {
         );
     }
 
+    @Override
+    public List<User> getPage(final Long after, final int limit) {
+        return jdbc.query(
+                "SELECT * FROM " + TABLE_NAME + " WHERE id > ? ORDER BY id LIMIT ?",
+                mapper,
+                after,
+                limit
+        );
+    }
+
     public User findById(final Long id) {
         try {
             return jdbc.queryForObject(
@@ -47,6 +79,28 @@ public class UserDbRepository implements UserRepository {
         }
     }
 
+    @Override
+    public List<User> findByIds(final List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, User> users = HashMap.newHashMap(ids.size());
+
+        for (Object[] bucket : InClause.buckets(ids)) {
+            jdbc.query(
+                    "SELECT * FROM " + TABLE_NAME + " WHERE id IN (" + InClause.placeholders(bucket.length) + ")",
+                    rs -> {
+                        User user = mapper.mapRow(rs, rs.getRow());
+                        users.put(user.getId(), user);
+                    },
+                    bucket
+            );
+        }
+
+        return ids.stream().map(users::get).filter(Objects::nonNull).toList();
+    }
+
     @Override
     public User create(final User user) {
         KeyHolder keyHolder = new GeneratedKeyHolder();
@@ -81,10 +135,90 @@ public class UserDbRepository implements UserRepository {
         }
 
         user.setId(id);
+        AfterCommit.run(() -> userIdIndex.add(id));
 
         return user;
     }
 
+    @Override
+    @Transactional
+    public List<User> createAll(final List<User> users) {
+        if (users.isEmpty()) {
+            return users;
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        try {
+            jdbc.batchUpdate(
+                    conn -> conn.prepareStatement(
+                            "INSERT INTO " + TABLE_NAME + " (email, login, name, birthday) " +
+                                    "VALUES (?, ?, ?, ?)",
+                            new String[] {"id"}
+                    ),
+                    new BatchPreparedStatementSetter() {
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            User user = users.get(i);
+
+                            ps.setString(1, user.getEmail());
+                            ps.setString(2, user.getLogin());
+                            ps.setString(3, user.getName());
+                            ps.setDate(4, Date.valueOf(user.getBirthday()));
+                        }
+
+                        public int getBatchSize() {
+                            return users.size();
+                        }
+                    },
+                    keyHolder
+            );
+        } catch (DataAccessException e) {
+            log.error(e.getMessage(), e);
+            throw new InternalErrorException("Error on saving data");
+        }
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+
+        if (keys.size() != users.size()) {
+            throw new InternalErrorException("Error on saving data");
+        }
+
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+        }
+
+        List<Long> ids = users.stream().map(User::getId).toList();
+        AfterCommit.run(() -> userIdIndex.addAll(ids));
+
+        return users;
+    }
+
+    @Override
+    public List<User> findByEmailsOrLogins(final List<String> emails, final List<String> logins) {
+        if (emails.isEmpty() && logins.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<String> conditions = new ArrayList<>(2);
+        List<Object> params = new ArrayList<>(emails.size() + logins.size());
+
+        if (!emails.isEmpty()) {
+            conditions.add("email IN (" + InClause.placeholders(emails.size()) + ")");
+            params.addAll(emails);
+        }
+
+        if (!logins.isEmpty()) {
+            conditions.add("login IN (" + InClause.placeholders(logins.size()) + ")");
+            params.addAll(logins);
+        }
+
+        return jdbc.query(
+                "SELECT * FROM " + TABLE_NAME + " WHERE " + String.join(" OR ", conditions),
+                mapper,
+                params.toArray()
+        );
+    }
+
     @Override
     public User update(final User user) {
         try {
@@ -0,0 +1,43 @@
+package ru.yandex.practicum.filmorate.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Embedded H2 runs statements inside synchronized sections, which pin the carrier of a virtual thread. Only threads
+// holding a connection get that far, so a pool no larger than the carrier count bounds how many carriers H2 can pin.
+// Flyway holds two connections while migrating, which sets the floor.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPoolPostProcessor implements BeanPostProcessor {
+    private static final int MIN_POOL_SIZE = 2;
+
+    private final int maximumPoolSize = Math.max(MIN_POOL_SIZE, carriers());
+
+    @Override
+    public Object postProcessBeforeInitialization(final Object bean, final String beanName) {
+        if (bean instanceof HikariDataSource dataSource && dataSource.getMaximumPoolSize() > maximumPoolSize) {
+            log.info(
+                    "Connection pool {} limited from {} to {} connections for virtual threads",
+                    dataSource.getPoolName(),
+                    dataSource.getMaximumPoolSize(),
+                    maximumPoolSize
+            );
+            dataSource.setMaximumPoolSize(maximumPoolSize);
+            dataSource.setMinimumIdle(Math.min(dataSource.getMinimumIdle(), maximumPoolSize));
+        }
+
+        return bean;
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    private static int carriers() {
+        return Integer.getInteger("jdk.virtualThreadScheduler.parallelism", Runtime.getRuntime().availableProcessors());
+    }
+}
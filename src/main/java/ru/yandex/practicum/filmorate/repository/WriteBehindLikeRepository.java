@@ -0,0 +1,277 @@
+package ru.yandex.practicum.filmorate.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import ru.yandex.practicum.filmorate.exception.ServiceUnavailableException;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.repository.contracts.LikeRepository;
+import ru.yandex.practicum.filmorate.repository.contracts.WriteOutcome;
+import ru.yandex.practicum.filmorate.repository.index.PopularFilmIndex;
+import ru.yandex.practicum.filmorate.repository.index.UserIdIndex;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+@Slf4j
+@Primary
+@Repository
+@ConditionalOnProperty(name = "filmorate.likes.write-behind.enabled", havingValue = "true")
+public class WriteBehindLikeRepository implements LikeRepository {
+    private final LikeDbRepository likeDbRepository;
+    private final PopularFilmIndex popularFilmIndex;
+    private final UserIdIndex userIdIndex;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+    private final int maxRetries;
+    private final Counter retried;
+    private final Counter dropped;
+    private final Counter unknown;
+
+    private final Map<Like, PendingLike> pending = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition flushRequested = lock.newCondition();
+    private final Thread flusher;
+    private boolean running = true;
+
+    public WriteBehindLikeRepository(
+            final LikeDbRepository likeDbRepository,
+            final PopularFilmIndex popularFilmIndex,
+            final UserIdIndex userIdIndex,
+            @Value("${filmorate.likes.write-behind.capacity:100000}") final int capacity,
+            @Value("${filmorate.likes.write-behind.batch-size:1000}") final int batchSize,
+            @Value("${filmorate.likes.write-behind.flush-interval-ms:200}") final long flushIntervalMs,
+            @Value("${filmorate.likes.write-behind.offer-timeout-ms:1000}") final long offerTimeoutMs,
+            @Value("${filmorate.likes.write-behind.max-retries:3}") final int maxRetries,
+            final MeterRegistry meterRegistry
+    ) {
+        this.likeDbRepository = likeDbRepository;
+        this.popularFilmIndex = popularFilmIndex;
+        this.userIdIndex = userIdIndex;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.maxRetries = maxRetries;
+        this.retried = meterRegistry.counter("filmorate.likes.write-behind.retried");
+        this.dropped = meterRegistry.counter("filmorate.likes.write-behind.dropped");
+        this.unknown = meterRegistry.counter("filmorate.likes.write-behind.unknown");
+        this.flusher = Thread.ofPlatform()
+                .name("like-write-behind")
+                .daemon(true)
+                .start(this::runFlusher);
+    }
+
+    @Override
+    public WriteOutcome addLike(final Long filmId, final Long userId) {
+        return enqueue(Like.builder().filmId(filmId).userId(userId).build(), true);
+    }
+
+    @Override
+    public WriteOutcome deleteLike(final Long filmId, final Long userId) {
+        return enqueue(Like.builder().filmId(filmId).userId(userId).build(), false);
+    }
+
+    @Override
+    public int addLikes(final List<Like> likes) {
+        return likeDbRepository.addLikes(likes);
+    }
+
+    @Override
+    public int deleteLikes(final List<Like> likes) {
+        return likeDbRepository.deleteLikes(likes);
+    }
+
+    @Override
+    public List<Long> findRecommendedFilmIds(final Long userId, final int count) {
+        return likeDbRepository.findRecommendedFilmIds(userId, count);
+    }
+
+    @Override
+    public int reconcileLikeCounts() {
+        return likeDbRepository.reconcileLikeCounts();
+    }
+
+    @Override
+    public int reconcileLikeMatrix() {
+        return likeDbRepository.reconcileLikeMatrix();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lock.lock();
+        try {
+            running = false;
+            flushRequested.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            flusher.join();
+            log.info("Like write-behind queue drained");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while draining like write-behind queue");
+        }
+    }
+
+    private WriteOutcome enqueue(final Like like, final boolean liked) {
+        // Checked against the indexes, so unknown ids still get a 404 without a database round trip.
+        if (!popularFilmIndex.contains(like.getFilmId())) {
+            return WriteOutcome.FILM_NOT_FOUND;
+        }
+
+        if (!userIdIndex.contains(like.getUserId())) {
+            return WriteOutcome.USER_NOT_FOUND;
+        }
+
+        lock.lock();
+        try {
+            if (running) {
+                long nanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+
+                while (pending.size() >= capacity && !pending.containsKey(like)) {
+                    flushRequested.signal();
+
+                    if (nanos <= 0) {
+                        throw new ServiceUnavailableException("Like queue is full");
+                    }
+
+                    nanos = notFull.awaitNanos(nanos);
+                }
+
+                pending.put(like, new PendingLike(liked, 0));
+
+                if (pending.size() >= batchSize) {
+                    flushRequested.signal();
+                }
+
+                return WriteOutcome.APPLIED;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Like queue is unavailable");
+        } finally {
+            lock.unlock();
+        }
+
+        return liked
+                ? likeDbRepository.addLike(like.getFilmId(), like.getUserId())
+                : likeDbRepository.deleteLike(like.getFilmId(), like.getUserId());
+    }
+
+    private void runFlusher() {
+        while (true) {
+            Map<Like, PendingLike> batch;
+
+            lock.lock();
+            try {
+                while (running && pending.size() < Math.min(batchSize, capacity)) {
+                    if (!flushRequested.await(flushIntervalMs, TimeUnit.MILLISECONDS)) {
+                        break;
+                    }
+                }
+
+                if (!running && pending.isEmpty()) {
+                    return;
+                }
+
+                batch = new LinkedHashMap<>(pending);
+                pending.clear();
+                notFull.signalAll();
+            } catch (InterruptedException e) {
+                running = false;
+                continue;
+            } finally {
+                lock.unlock();
+            }
+
+            write(batch);
+        }
+    }
+
+    private void write(final Map<Like, PendingLike> batch) {
+        List<Like> added = new ArrayList<>();
+        List<Like> deleted = new ArrayList<>();
+        List<Like> unknownLikes = new ArrayList<>();
+
+        batch.forEach((like, operation) -> {
+            if (!popularFilmIndex.contains(like.getFilmId()) || !userIdIndex.contains(like.getUserId())) {
+                unknownLikes.add(like);
+            } else {
+                (operation.liked() ? added : deleted).add(like);
+            }
+        });
+
+        if (!unknownLikes.isEmpty()) {
+            unknown.increment(unknownLikes.size());
+            log.warn("Dropped {} buffered likes of unknown films or users: {}", unknownLikes.size(), unknownLikes);
+        }
+
+        writeChunks(added, batch, likeDbRepository::addLikes);
+        writeChunks(deleted, batch, likeDbRepository::deleteLikes);
+    }
+
+    private void writeChunks(
+            final List<Like> likes,
+            final Map<Like, PendingLike> batch,
+            final Function<List<Like>, Integer> writer
+    ) {
+        for (int from = 0; from < likes.size(); from += batchSize) {
+            List<Like> chunk = likes.subList(from, Math.min(from + batchSize, likes.size()));
+
+            try {
+                writer.apply(chunk);
+            } catch (RuntimeException e) {
+                log.error("Failed to flush {} buffered likes", chunk.size(), e);
+                requeue(chunk, batch);
+            }
+        }
+    }
+
+    private void requeue(final List<Like> chunk, final Map<Like, PendingLike> batch) {
+        List<Like> exhausted = new ArrayList<>();
+        int requeued = 0;
+
+        lock.lock();
+        try {
+            for (Like like : chunk) {
+                PendingLike failed = batch.get(like);
+
+                if (failed.attempts() >= maxRetries) {
+                    exhausted.add(like);
+                } else if (pending.putIfAbsent(like, new PendingLike(failed.liked(), failed.attempts() + 1)) == null) {
+                    // A newer operation on the same like replaces the failed one.
+                    requeued++;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        retried.increment(requeued);
+
+        if (!exhausted.isEmpty()) {
+            dropped.increment(exhausted.size());
+            log.error("Dropped {} buffered likes after {} retries: {}", exhausted.size(), maxRetries, exhausted);
+        }
+    }
+
+    private record PendingLike(boolean liked, int attempts) {
+    }
+}
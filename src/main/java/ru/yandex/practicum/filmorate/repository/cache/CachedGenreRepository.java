@@ -0,0 +1,54 @@
+package ru.yandex.practicum.filmorate.repository.cache;
+
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.repository.GenreDbRepository;
+import ru.yandex.practicum.filmorate.repository.contracts.GenreRepository;
+
+import java.util.List;
+import java.util.Map;
+
+@Primary
+@Repository
+public class CachedGenreRepository implements GenreRepository {
+    private final GenreDbRepository genreDbRepository;
+    private final DictionaryCache<Genre> cache;
+
+    public CachedGenreRepository(final GenreDbRepository genreDbRepository) {
+        this.genreDbRepository = genreDbRepository;
+        this.cache = new DictionaryCache<>(
+                genreDbRepository::getAll,
+                Genre::getId,
+                genre -> genre.toBuilder().build()
+        );
+    }
+
+    @Override
+    public List<Genre> getAll() {
+        return cache.getAll();
+    }
+
+    @Override
+    public List<Genre> findByFilmId(final Long filmId) {
+        return genreDbRepository.findByFilmId(filmId);
+    }
+
+    @Override
+    public Map<Long, List<Genre>> findByFilmId(final List<Long> filmIds) {
+        return genreDbRepository.findByFilmId(filmIds);
+    }
+
+    @Override
+    public Genre findById(final Long id) {
+        return cache.findById(id);
+    }
+
+    public boolean refresh() {
+        return cache.refresh();
+    }
+
+    public DictionaryCache<Genre> getCache() {
+        return cache;
+    }
+}
@@ -0,0 +1,41 @@
+package ru.yandex.practicum.filmorate.repository.cache;
+
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.repository.MpaDbRepository;
+import ru.yandex.practicum.filmorate.repository.contracts.MpaRepository;
+
+import java.util.List;
+
+@Primary
+@Repository
+public class CachedMpaRepository implements MpaRepository {
+    private final DictionaryCache<Mpa> cache;
+
+    public CachedMpaRepository(final MpaDbRepository mpaDbRepository) {
+        this.cache = new DictionaryCache<>(
+                mpaDbRepository::getAll,
+                Mpa::getId,
+                mpa -> mpa.toBuilder().build()
+        );
+    }
+
+    @Override
+    public List<Mpa> getAll() {
+        return cache.getAll();
+    }
+
+    @Override
+    public Mpa findById(final Long id) {
+        return cache.findById(id);
+    }
+
+    public boolean refresh() {
+        return cache.refresh();
+    }
+
+    public DictionaryCache<Mpa> getCache() {
+        return cache;
+    }
+}
@@ -0,0 +1,121 @@
+package ru.yandex.practicum.filmorate.repository.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+// Values are mutable models, so callers get copies and never share the cached instances.
+public class DictionaryCache<T> {
+    private final Supplier<List<T>> loader;
+    private final Function<T, Long> idExtractor;
+    private final UnaryOperator<T> copier;
+    private final Lock loadLock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot<T> snapshot;
+
+    public DictionaryCache(
+            final Supplier<List<T>> loader,
+            final Function<T, Long> idExtractor,
+            final UnaryOperator<T> copier
+    ) {
+        this.loader = loader;
+        this.idExtractor = idExtractor;
+        this.copier = copier;
+    }
+
+    public List<T> getAll() {
+        Snapshot<T> current = snapshot;
+        count(current != null);
+
+        return loaded(current).values().stream().map(copier).toList();
+    }
+
+    public T findById(final Long id) {
+        if (id == null) {
+            return null;
+        }
+
+        Snapshot<T> current = snapshot;
+        T value = loaded(current).byId().get(id);
+        // A lookup of an id the dictionary lacks went past the cache, so it is a miss as well.
+        count(current != null && value != null);
+
+        return value == null ? null : copier.apply(value);
+    }
+
+    // Reloads the values and bumps the version only when they changed, so catalog ETags stay valid otherwise.
+    public boolean refresh() {
+        loadLock.lock();
+        try {
+            Snapshot<T> current = snapshot;
+            Snapshot<T> loaded = load();
+
+            snapshot = loaded;
+
+            // Nothing was served from an empty cache, so there is nothing to invalidate.
+            if (current == null || current.values().equals(loaded.values())) {
+                return false;
+            }
+
+            version.incrementAndGet();
+
+            return true;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private void count(final boolean hit) {
+        (hit ? hits : misses).increment();
+    }
+
+    private Snapshot<T> loaded(final Snapshot<T> current) {
+        if (current != null) {
+            return current;
+        }
+
+        loadLock.lock();
+        try {
+            if (snapshot == null) {
+                snapshot = load();
+            }
+
+            return snapshot;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private Snapshot<T> load() {
+        List<T> values = List.copyOf(loader.get());
+
+        return new Snapshot<>(
+                values,
+                values.stream().collect(Collectors.toUnmodifiableMap(idExtractor, Function.identity()))
+        );
+    }
+
+    private record Snapshot<T>(List<T> values, Map<Long, T> byId) {
+    }
+}
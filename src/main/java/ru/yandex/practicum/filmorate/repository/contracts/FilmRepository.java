@@ -3,17 +3,33 @@ package ru.yandex.practicum.filmorate.repository.contracts;
 import ru.yandex.practicum.filmorate.model.Film;
 
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface FilmRepository {
     List<Film> getAll();
 
+    List<Film> getPage(Long after, int limit);
+
+    void streamAll(Consumer<Film> consumer);
+
     Film findById(Long id);
 
     Film create(Film film);
 
+    List<Film> createAll(List<Film> films);
+
     Film update(Film film);
 
     List<Film> getPopular(int count);
 
+    List<Film> getPopular(int count, Long genreId, Integer year);
+
+    List<Film> findByIds(List<Long> ids);
+
+    List<Film> search(String query, Set<SearchField> fields, int count);
+
     boolean isExists(Long id);
+
+    long getVersion();
 }
@@ -1,15 +1,22 @@
 package ru.yandex.practicum.filmorate.repository.contracts;
 
+import ru.yandex.practicum.filmorate.model.Friendship;
 import ru.yandex.practicum.filmorate.model.User;
 
 import java.util.List;
 
 public interface FriendshipRepository {
-    void addFriend(final Long userId, final Long friendId);
+    WriteOutcome addFriend(final Long userId, final Long friendId);
 
-    void deleteFriend(final Long userId, final Long friendId);
+    WriteOutcome deleteFriend(final Long userId, final Long friendId);
+
+    int addFriends(List<Friendship> friendships);
 
     List<User> findFriendsByUserId(final Long userId);
 
-    List<User> findCommonFriends(Long userId, Long friendId);
+    List<Long> findCommonFriendIds(Long userId, Long friendId);
+
+    List<Long> findRecommendedFriendIds(Long userId, int count);
+
+    int reconcileFriendGraph();
 }
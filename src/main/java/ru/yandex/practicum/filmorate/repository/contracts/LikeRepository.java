@@ -1,8 +1,22 @@
 package ru.yandex.practicum.filmorate.repository.contracts;
 
+import ru.yandex.practicum.filmorate.model.Like;
+
+import java.util.List;
+
 public interface LikeRepository {
 
-    void addLike(final Long id, final Long userId);
+    WriteOutcome addLike(final Long id, final Long userId);
+
+    WriteOutcome deleteLike(final Long id, final Long userId);
+
+    int addLikes(List<Like> likes);
+
+    int deleteLikes(List<Like> likes);
+
+    List<Long> findRecommendedFilmIds(Long userId, int count);
+
+    int reconcileLikeCounts();
 
-    void deleteLike(final Long id, final Long userId);
+    int reconcileLikeMatrix();
 }
@@ -0,0 +1,6 @@
+package ru.yandex.practicum.filmorate.repository.contracts;
+
+public enum SearchField {
+    TITLE,
+    DESCRIPTION
+}
@@ -7,10 +7,18 @@ import java.util.List;
 public interface UserRepository {
     List<User> getAll();
 
+    List<User> getPage(Long after, int limit);
+
     User findById(Long id);
 
+    List<User> findByIds(List<Long> ids);
+
     User create(User user);
 
+    List<User> createAll(List<User> users);
+
+    List<User> findByEmailsOrLogins(List<String> emails, List<String> logins);
+
     User update(User user);
 
     boolean isExists(Long id);
@@ -0,0 +1,9 @@
+package ru.yandex.practicum.filmorate.repository.contracts;
+
+public enum WriteOutcome {
+    APPLIED,
+    UNCHANGED,
+    FILM_NOT_FOUND,
+    USER_NOT_FOUND,
+    FRIEND_NOT_FOUND
+}
@@ -0,0 +1,152 @@
+package ru.yandex.practicum.filmorate.repository.index;
+
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.repository.contracts.SearchField;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+@Component
+public class FilmSearchIndex {
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final int TITLE_WEIGHT = 3;
+    private static final int EXACT_MATCH_WEIGHT = 2;
+    private static final Comparator<Map.Entry<Long, Integer>> RANK = Map.Entry.<Long, Integer>comparingByValue()
+            .reversed()
+            .thenComparing(Map.Entry.<Long, Integer>comparingByKey());
+
+    private final Map<SearchField, TreeMap<String, Map<Long, Integer>>> postings = new EnumMap<>(SearchField.class);
+    private final Map<Long, Map<SearchField, Set<String>>> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public FilmSearchIndex() {
+        for (SearchField field : SearchField.values()) {
+            postings.put(field, new TreeMap<>());
+        }
+    }
+
+    public void put(final Long filmId, final String title, final String description) {
+        Map<SearchField, Map<String, Integer>> frequencies = new EnumMap<>(SearchField.class);
+        frequencies.put(SearchField.TITLE, frequencies(title));
+        frequencies.put(SearchField.DESCRIPTION, frequencies(description));
+
+        lock.writeLock().lock();
+        try {
+            remove(filmId);
+
+            Map<SearchField, Set<String>> tokens = new EnumMap<>(SearchField.class);
+
+            frequencies.forEach((field, counts) -> {
+                counts.forEach((token, count) -> postings.get(field)
+                        .computeIfAbsent(token, key -> new HashMap<>())
+                        .put(filmId, count));
+                tokens.put(field, counts.keySet());
+            });
+
+            documents.put(filmId, tokens);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Long> search(final String query, final Set<SearchField> fields, final int count) {
+        List<String> tokens = tokenize(query).distinct().toList();
+
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = null;
+
+            for (String token : tokens) {
+                Map<Long, Integer> tokenScores = score(token, fields);
+
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((filmId, score) -> score + tokenScores.get(filmId));
+                }
+
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(RANK)
+                    .limit(count)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Integer> score(final String token, final Set<SearchField> fields) {
+        Map<Long, Integer> scores = new HashMap<>();
+
+        for (SearchField field : fields) {
+            int fieldWeight = field == SearchField.TITLE ? TITLE_WEIGHT : 1;
+
+            postings.get(field)
+                    .subMap(token, true, token + Character.MAX_VALUE, true)
+                    .forEach((indexed, films) -> {
+                        int weight = fieldWeight * (indexed.length() == token.length() ? EXACT_MATCH_WEIGHT : 1);
+                        films.forEach((filmId, frequency) -> scores.merge(filmId, frequency * weight, Integer::sum));
+                    });
+        }
+
+        return scores;
+    }
+
+    private void remove(final Long filmId) {
+        Map<SearchField, Set<String>> tokens = documents.remove(filmId);
+
+        if (tokens == null) {
+            return;
+        }
+
+        tokens.forEach((field, fieldTokens) -> {
+            TreeMap<String, Map<Long, Integer>> fieldPostings = postings.get(field);
+
+            for (String token : fieldTokens) {
+                Map<Long, Integer> films = fieldPostings.get(token);
+                films.remove(filmId);
+
+                if (films.isEmpty()) {
+                    fieldPostings.remove(token);
+                }
+            }
+        });
+    }
+
+    private static Map<String, Integer> frequencies(final String text) {
+        Map<String, Integer> counts = new HashMap<>();
+        tokenize(text).forEach(token -> counts.merge(token, 1, Integer::sum));
+
+        return counts;
+    }
+
+    private static Stream<String> tokenize(final String text) {
+        if (text == null) {
+            return Stream.empty();
+        }
+
+        return Arrays.stream(SEPARATOR.split(text.toLowerCase(Locale.ROOT).replace('ё', 'е')))
+                .filter(token -> !token.isEmpty());
+    }
+}
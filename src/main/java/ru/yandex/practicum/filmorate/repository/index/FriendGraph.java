@@ -0,0 +1,289 @@
+package ru.yandex.practicum.filmorate.repository.index;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class FriendGraph {
+    private static final long[] EMPTY = new long[0];
+    private static final int SEARCH_RATIO = 32;
+    private static final Comparator<Candidate> RANK = Comparator
+            .comparingInt(Candidate::mutualFriends)
+            .thenComparing(Comparator.comparingLong(Candidate::userId).reversed());
+
+    private final Map<Long, long[]> adjacency = new HashMap<>();
+    // Sequence of the last change per user, reconcile leaves users changed after its mark alone.
+    private final Map<Long, Long> changedAt = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long sequence;
+
+    public void seed(final Map<Long, long[]> sortedAdjacency) {
+        lock.writeLock().lock();
+        try {
+            adjacency.clear();
+            changedAt.clear();
+            adjacency.putAll(sortedAdjacency);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long mark() {
+        lock.readLock().lock();
+        try {
+            return sequence;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Replaces friend lists that differ from ones read after mark(), skipping users changed since then.
+    public int reconcile(final Map<Long, long[]> sortedAdjacency, final long mark) {
+        lock.writeLock().lock();
+        try {
+            int corrected = 0;
+
+            for (Map.Entry<Long, long[]> friends : sortedAdjacency.entrySet()) {
+                if (isStable(friends.getKey(), mark)
+                        && !Arrays.equals(adjacency.getOrDefault(friends.getKey(), EMPTY), friends.getValue())) {
+                    put(friends.getKey(), friends.getValue());
+                    corrected++;
+                }
+            }
+
+            for (Long userId : List.copyOf(adjacency.keySet())) {
+                if (!sortedAdjacency.containsKey(userId) && isStable(userId, mark)) {
+                    put(userId, EMPTY);
+                    corrected++;
+                }
+            }
+
+            return corrected;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Sets the given edges of a user to their state in the database.
+    public void apply(final Long userId, final List<Long> present, final List<Long> absent) {
+        lock.writeLock().lock();
+        try {
+            long[] friends = union(adjacency.getOrDefault(userId, EMPTY), present);
+
+            if (!absent.isEmpty()) {
+                long[] removed = absent.stream().mapToLong(Long::longValue).sorted().toArray();
+                friends = Arrays.stream(friends).filter(id -> Arrays.binarySearch(removed, id) < 0).toArray();
+            }
+
+            put(userId, friends);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void add(final Long userId, final Long friendId) {
+        lock.writeLock().lock();
+        try {
+            long[] friends = adjacency.getOrDefault(userId, EMPTY);
+            int position = Arrays.binarySearch(friends, friendId);
+
+            if (position >= 0) {
+                return;
+            }
+
+            position = -position - 1;
+            long[] updated = new long[friends.length + 1];
+            System.arraycopy(friends, 0, updated, 0, position);
+            updated[position] = friendId;
+            System.arraycopy(friends, position, updated, position + 1, friends.length - position);
+
+            put(userId, updated);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(final Long userId, final Long friendId) {
+        lock.writeLock().lock();
+        try {
+            long[] friends = adjacency.getOrDefault(userId, EMPTY);
+            int position = Arrays.binarySearch(friends, friendId);
+
+            if (position < 0) {
+                return;
+            }
+
+            long[] updated = new long[friends.length - 1];
+            System.arraycopy(friends, 0, updated, 0, position);
+            System.arraycopy(friends, position + 1, updated, position, friends.length - position - 1);
+
+            put(userId, updated);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Long> common(final Long userId, final Long otherId) {
+        lock.readLock().lock();
+        try {
+            long[] first = adjacency.getOrDefault(userId, EMPTY);
+            long[] second = adjacency.getOrDefault(otherId, EMPTY);
+
+            if (first.length > second.length) {
+                long[] swap = first;
+                first = second;
+                second = swap;
+            }
+
+            return first.length * SEARCH_RATIO < second.length
+                    ? search(first, second)
+                    : merge(first, second);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> recommend(final Long userId, final int count) {
+        lock.readLock().lock();
+        try {
+            long[] friends = adjacency.getOrDefault(userId, EMPTY);
+            int total = 0;
+
+            for (long friendId : friends) {
+                total += adjacency.getOrDefault(friendId, EMPTY).length;
+            }
+
+            long[] candidates = new long[total];
+            int size = 0;
+
+            for (long friendId : friends) {
+                for (long candidateId : adjacency.getOrDefault(friendId, EMPTY)) {
+                    if (candidateId != userId && Arrays.binarySearch(friends, candidateId) < 0) {
+                        candidates[size++] = candidateId;
+                    }
+                }
+            }
+
+            return top(candidates, size, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean isStable(final Long userId, final long mark) {
+        return changedAt.getOrDefault(userId, 0L) <= mark;
+    }
+
+    private void put(final Long userId, final long[] friends) {
+        if (friends.length == 0) {
+            adjacency.remove(userId);
+        } else {
+            adjacency.put(userId, friends);
+        }
+
+        changedAt.put(userId, ++sequence);
+    }
+
+    private static long[] union(final long[] friends, final List<Long> friendIds) {
+        long[] added = friendIds.stream().mapToLong(Long::longValue).sorted().toArray();
+        long[] merged = new long[friends.length + added.length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+
+        while (i < friends.length || j < added.length) {
+            long next = j == added.length || i < friends.length && friends[i] <= added[j]
+                    ? friends[i++]
+                    : added[j++];
+
+            if (size == 0 || merged[size - 1] != next) {
+                merged[size++] = next;
+            }
+        }
+
+        return size == merged.length ? merged : Arrays.copyOf(merged, size);
+    }
+
+    private static List<Long> merge(final long[] first, final long[] second) {
+        List<Long> ids = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+
+        while (i < first.length && j < second.length) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (first[i] > second[j]) {
+                j++;
+            } else {
+                ids.add(first[i]);
+                i++;
+                j++;
+            }
+        }
+
+        return ids;
+    }
+
+    private static List<Long> search(final long[] smaller, final long[] larger) {
+        List<Long> ids = new ArrayList<>();
+        int from = 0;
+
+        for (long id : smaller) {
+            int position = Arrays.binarySearch(larger, from, larger.length, id);
+
+            if (position >= 0) {
+                ids.add(id);
+                from = position + 1;
+            } else {
+                from = -position - 1;
+            }
+
+            if (from == larger.length) {
+                break;
+            }
+        }
+
+        return ids;
+    }
+
+    private static List<Long> top(final long[] candidates, final int size, final int count) {
+        Arrays.sort(candidates, 0, size);
+        PriorityQueue<Candidate> best = new PriorityQueue<>(Math.min(count, size) + 1, RANK);
+
+        for (int from = 0; from < size; ) {
+            int to = from;
+
+            while (to < size && candidates[to] == candidates[from]) {
+                to++;
+            }
+
+            best.add(new Candidate(candidates[from], to - from));
+
+            if (best.size() > count) {
+                best.poll();
+            }
+
+            from = to;
+        }
+
+        List<Long> ids = new ArrayList<>(best.size());
+
+        while (!best.isEmpty()) {
+            ids.add(best.poll().userId());
+        }
+
+        return ids.reversed();
+    }
+
+    private record Candidate(long userId, int mutualFriends) {
+    }
+}
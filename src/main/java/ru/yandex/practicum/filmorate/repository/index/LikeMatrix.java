@@ -0,0 +1,349 @@
+package ru.yandex.practicum.filmorate.repository.index;
+
+import jakarta.annotation.PreDestroy;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+@Component
+public class LikeMatrix {
+    private static final int NEIGHBOURS = 50;
+    private static final int PARALLEL_CANDIDATES = 4096;
+    private static final Comparator<Neighbour> SIMILARITY = Comparator
+            .comparingInt(Neighbour::overlap).reversed()
+            .thenComparingInt(Neighbour::user);
+
+    // Ids are mapped to dense indexes, so bitmaps stay small for sparse or large ids.
+    private final Index users = new Index();
+    private final Index films = new Index();
+    private final List<RoaringBitmap> filmsByUser = new ArrayList<>();
+    private final List<RoaringBitmap> usersByFilm = new ArrayList<>();
+    // Users with an uncommitted like write and the sequence of their last change, reconcile leaves both alone.
+    private final Map<Long, Integer> inFlight = new HashMap<>();
+    private final Map<Long, Long> changedAt = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ForkJoinPool neighbourPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    private long sequence;
+
+    // Likes are pushed straight into the bitmaps, so seeding never holds the whole like table on the heap.
+    public int seed(final Consumer<LikeSink> likes) {
+        lock.writeLock().lock();
+        try {
+            users.clear();
+            films.clear();
+            filmsByUser.clear();
+            usersByFilm.clear();
+            changedAt.clear();
+            likes.accept(this::put);
+            filmsByUser.forEach(RoaringBitmap::runOptimize);
+            usersByFilm.forEach(RoaringBitmap::runOptimize);
+
+            return filmsByUser.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void add(final Long filmId, final Long userId) {
+        lock.writeLock().lock();
+        try {
+            put(filmId, userId);
+            changedAt.put(userId, ++sequence);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(final Long filmId, final Long userId) {
+        lock.writeLock().lock();
+        try {
+            int user = users.find(userId);
+            int film = films.find(filmId);
+            changedAt.put(userId, ++sequence);
+
+            if (user < 0 || film < 0) {
+                return;
+            }
+
+            filmsByUser.get(user).remove(film);
+            usersByFilm.get(film).remove(user);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void beginChange(final Collection<Long> userIds) {
+        lock.writeLock().lock();
+        try {
+            userIds.forEach(userId -> inFlight.merge(userId, 1, Integer::sum));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void endChange(final Collection<Long> userIds) {
+        lock.writeLock().lock();
+        try {
+            userIds.forEach(userId -> inFlight.computeIfPresent(userId, (id, writes) -> writes == 1 ? null : writes - 1));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long mark() {
+        lock.readLock().lock();
+        try {
+            return sequence;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Replaces liked films that differ from likes read after mark(), skipping users changed since then or still
+    // being written. Likes must come ordered by user, each user is compared under its own short write lock.
+    public int reconcile(final Consumer<LikeSink> likesByUser, final long mark) {
+        Reconciliation reconciliation = new Reconciliation(mark);
+        likesByUser.accept(reconciliation);
+
+        return reconciliation.finish();
+    }
+
+    public List<Long> recommend(final Long userId, final int count) {
+        lock.readLock().lock();
+        try {
+            int user = users.find(userId);
+
+            if (user < 0 || filmsByUser.get(user).isEmpty()) {
+                return List.of();
+            }
+
+            RoaringBitmap liked = filmsByUser.get(user);
+            RoaringBitmap candidates = FastAggregation.or(
+                    Arrays.stream(liked.toArray()).mapToObj(usersByFilm::get).iterator()
+            );
+            candidates.remove(user);
+
+            // Large candidate sets are split over a pool of our own, so request threads never wait on the common one.
+            List<Neighbour> neighbours = candidates.getCardinality() < PARALLEL_CANDIDATES
+                    ? closest(candidates.stream(), liked)
+                    : neighbourPool.submit(() -> closest(Arrays.stream(candidates.toArray()).parallel(), liked)).join();
+
+            Map<Integer, Integer> scores = new HashMap<>();
+
+            for (Neighbour neighbour : neighbours) {
+                filmsByUser.get(neighbour.user()).forEach((int film) -> {
+                    if (!liked.contains(film)) {
+                        scores.merge(film, neighbour.overlap(), Integer::sum);
+                    }
+                });
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+                            .thenComparing(score -> films.idOf(score.getKey())))
+                    .limit(count)
+                    .map(score -> films.idOf(score.getKey()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        neighbourPool.shutdown();
+    }
+
+    // Each partition keeps only its best neighbours in a bounded heap instead of sorting every candidate.
+    private List<Neighbour> closest(final IntStream candidates, final RoaringBitmap liked) {
+        PriorityQueue<Neighbour> closest = candidates.collect(
+                () -> new PriorityQueue<>(NEIGHBOURS + 1, SIMILARITY.reversed()),
+                (heap, candidate) -> offer(
+                        heap,
+                        new Neighbour(candidate, RoaringBitmap.andCardinality(liked, filmsByUser.get(candidate)))
+                ),
+                (heap, other) -> other.forEach(neighbour -> offer(heap, neighbour))
+        );
+
+        return closest.stream().sorted(SIMILARITY).toList();
+    }
+
+    private static void offer(final PriorityQueue<Neighbour> heap, final Neighbour neighbour) {
+        heap.add(neighbour);
+
+        if (heap.size() > NEIGHBOURS) {
+            heap.poll();
+        }
+    }
+
+    private void put(final long filmId, final long userId) {
+        int user = users.indexOf(userId, filmsByUser);
+        int film = films.indexOf(filmId, usersByFilm);
+
+        filmsByUser.get(user).add(film);
+        usersByFilm.get(film).add(user);
+    }
+
+    private boolean replace(final long userId, final long[] filmIds, final int size, final long mark) {
+        lock.writeLock().lock();
+        try {
+            int user = users.find(userId);
+
+            if (inFlight.containsKey(userId) || changedAt.getOrDefault(userId, 0L) > mark || (size == 0 && user < 0)) {
+                return false;
+            }
+
+            RoaringBitmap liked = new RoaringBitmap();
+
+            for (int i = 0; i < size; i++) {
+                liked.add(films.indexOf(filmIds[i], usersByFilm));
+            }
+
+            int row = users.indexOf(userId, filmsByUser);
+            RoaringBitmap current = filmsByUser.get(row);
+
+            if (current.equals(liked)) {
+                return false;
+            }
+
+            RoaringBitmap.andNot(current, liked).forEach((int film) -> usersByFilm.get(film).remove(row));
+            RoaringBitmap.andNot(liked, current).forEach((int film) -> usersByFilm.get(film).add(row));
+            filmsByUser.set(row, liked);
+
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<Long> likingUsers() {
+        lock.readLock().lock();
+        try {
+            List<Long> userIds = new ArrayList<>();
+
+            for (int user = 0; user < filmsByUser.size(); user++) {
+                if (!filmsByUser.get(user).isEmpty()) {
+                    userIds.add(users.idOf(user));
+                }
+            }
+
+            return userIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @FunctionalInterface
+    public interface LikeSink {
+        void accept(long filmId, long userId);
+    }
+
+    private record Neighbour(int user, int overlap) {
+    }
+
+    private final class Reconciliation implements LikeSink {
+        private final long mark;
+        private final Set<Long> seen = new HashSet<>();
+        private long[] filmIds = new long[16];
+        private int size;
+        private long userId;
+        private int corrected;
+
+        Reconciliation(final long mark) {
+            this.mark = mark;
+        }
+
+        @Override
+        public void accept(final long filmId, final long userId) {
+            if (size > 0 && userId != this.userId) {
+                flush();
+            }
+
+            if (size == filmIds.length) {
+                filmIds = Arrays.copyOf(filmIds, size * 2);
+            }
+
+            this.userId = userId;
+            filmIds[size++] = filmId;
+        }
+
+        int finish() {
+            if (size > 0) {
+                flush();
+            }
+
+            // Users left without any like in the table lose their stale ones.
+            for (Long likingUser : likingUsers()) {
+                if (!seen.contains(likingUser) && replace(likingUser, filmIds, 0, mark)) {
+                    corrected++;
+                }
+            }
+
+            return corrected;
+        }
+
+        private void flush() {
+            seen.add(userId);
+
+            if (replace(userId, filmIds, size, mark)) {
+                corrected++;
+            }
+
+            size = 0;
+        }
+    }
+
+    private static final class Index {
+        private final Map<Long, Integer> indexes = new HashMap<>();
+        private long[] ids = new long[16];
+
+        int find(final Long id) {
+            return indexes.getOrDefault(id, -1);
+        }
+
+        int indexOf(final Long id, final List<RoaringBitmap> rows) {
+            Integer index = indexes.get(id);
+
+            if (index != null) {
+                return index;
+            }
+
+            index = indexes.size();
+
+            if (index == ids.length) {
+                ids = Arrays.copyOf(ids, index * 2);
+            }
+
+            ids[index] = id;
+            indexes.put(id, index);
+            rows.add(new RoaringBitmap());
+
+            return index;
+        }
+
+        long idOf(final int index) {
+            return ids[index];
+        }
+
+        void clear() {
+            indexes.clear();
+            ids = new long[16];
+        }
+    }
+}
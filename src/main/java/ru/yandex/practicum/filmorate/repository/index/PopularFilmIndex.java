@@ -0,0 +1,165 @@
+package ru.yandex.practicum.filmorate.repository.index;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class PopularFilmIndex {
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparingLong(Entry::likes).reversed()
+            .thenComparingLong(Entry::filmId);
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> ranking = new TreeSet<>(ORDER);
+    // Films with an uncommitted like write, reconcile leaves them to the write itself.
+    private final Map<Long, Integer> inFlight = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long sequence;
+
+    public void seed(final Map<Long, Long> likeCounts) {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            ranking.clear();
+            likeCounts.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addFilm(final Long filmId) {
+        lock.writeLock().lock();
+        try {
+            if (!entries.containsKey(filmId)) {
+                put(filmId, 0L);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(final Long filmId) {
+        lock.readLock().lock();
+        try {
+            return entries.containsKey(filmId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void beginChange(final Collection<Long> filmIds) {
+        lock.writeLock().lock();
+        try {
+            filmIds.forEach(filmId -> inFlight.merge(filmId, 1, Integer::sum));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void endChange(final Collection<Long> filmIds, final Map<Long, Long> deltas) {
+        lock.writeLock().lock();
+        try {
+            deltas.forEach(this::add);
+            filmIds.forEach(filmId -> inFlight.computeIfPresent(filmId, (id, writes) -> writes == 1 ? null : writes - 1));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long mark() {
+        lock.readLock().lock();
+        try {
+            return sequence;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Applies counts read after mark(), skipping films written since then or still being written.
+    public int reconcile(final Map<Long, Long> likeCounts, final long mark) {
+        lock.writeLock().lock();
+        try {
+            int corrected = 0;
+
+            for (Map.Entry<Long, Long> count : likeCounts.entrySet()) {
+                Entry current = entries.get(count.getKey());
+
+                if (isStable(count.getKey(), current, mark)
+                        && (current == null || current.likes() != count.getValue())) {
+                    if (current != null) {
+                        ranking.remove(current);
+                    }
+
+                    put(count.getKey(), count.getValue());
+                    corrected++;
+                }
+            }
+
+            Iterator<Entry> iterator = entries.values().iterator();
+
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+
+                if (!likeCounts.containsKey(entry.filmId()) && isStable(entry.filmId(), entry, mark)) {
+                    iterator.remove();
+                    ranking.remove(entry);
+                    corrected++;
+                }
+            }
+
+            return corrected;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Long> top(final int count) {
+        lock.readLock().lock();
+        try {
+            List<Long> ids = new ArrayList<>(Math.min(count, ranking.size()));
+            Iterator<Entry> iterator = ranking.iterator();
+
+            while (ids.size() < count && iterator.hasNext()) {
+                ids.add(iterator.next().filmId());
+            }
+
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(final Long filmId, final long delta) {
+        Entry current = entries.get(filmId);
+        long likes = current == null ? 0L : current.likes();
+
+        if (current != null) {
+            ranking.remove(current);
+        }
+
+        put(filmId, Math.max(0L, likes + delta));
+    }
+
+    private boolean isStable(final Long filmId, final Entry current, final long mark) {
+        return !inFlight.containsKey(filmId) && (current == null || current.changedAt() <= mark);
+    }
+
+    private void put(final Long filmId, final Long likes) {
+        Entry entry = new Entry(filmId, likes, ++sequence);
+        entries.put(filmId, entry);
+        ranking.add(entry);
+    }
+
+    private record Entry(long filmId, long likes, long changedAt) {
+    }
+}
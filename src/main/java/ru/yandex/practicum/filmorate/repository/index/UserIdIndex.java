@@ -0,0 +1,57 @@
+package ru.yandex.practicum.filmorate.repository.index;
+
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+// Users are never deleted, so ids only ever get added. Generated ids are sequential and compress well in the bitmap.
+@Component
+public class UserIdIndex {
+    private final Roaring64Bitmap ids = new Roaring64Bitmap();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public long seed(final Consumer<LongConsumer> userIds) {
+        lock.writeLock().lock();
+        try {
+            ids.clear();
+            userIds.accept(ids::addLong);
+            ids.runOptimize();
+
+            return ids.getLongCardinality();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void add(final Long userId) {
+        lock.writeLock().lock();
+        try {
+            ids.addLong(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addAll(final Collection<Long> userIds) {
+        lock.writeLock().lock();
+        try {
+            userIds.forEach(ids::addLong);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(final Long userId) {
+        lock.readLock().lock();
+        try {
+            return ids.contains(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -11,17 +11,22 @@ public class FilmRowMapper implements RowMapper<Film> {
 
     @Override
     public Film mapRow(ResultSet rs, int rowNum) throws SQLException {
+        long mpaId = rs.getLong("mpa_id");
+
         return Film.builder()
                 .id(rs.getLong("id"))
                 .name(rs.getString("name"))
                 .description(rs.getString("description"))
                 .duration(rs.getInt("duration"))
                 .releaseDate(rs.getDate("release_date").toLocalDate())
+                // mpa_id 0 is stored for films without a rating.
                 .mpa(
-                        Mpa.builder()
-                                .id(rs.getLong("mpa_id"))
-                                .name(rs.getString("mpa_name"))
-                                .build()
+                        mpaId == 0
+                                ? null
+                                : Mpa.builder()
+                                        .id(mpaId)
+                                        .name(rs.getString("mpa_name"))
+                                        .build()
                 )
                 .build();
     }
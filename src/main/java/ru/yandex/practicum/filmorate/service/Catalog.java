@@ -0,0 +1,7 @@
+package ru.yandex.practicum.filmorate.service;
+
+public enum Catalog {
+    FILMS,
+    GENRES,
+    MPA
+}
@@ -0,0 +1,29 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.repository.cache.CachedGenreRepository;
+import ru.yandex.practicum.filmorate.repository.cache.CachedMpaRepository;
+import ru.yandex.practicum.filmorate.repository.contracts.FilmRepository;
+
+@Service
+@RequiredArgsConstructor
+public class CatalogVersionService {
+    // Counters restart with the process, the boot epoch keeps old ETags from matching afterwards.
+    private final long bootEpoch = System.currentTimeMillis();
+    private final FilmRepository filmRepository;
+    private final CachedGenreRepository genreRepository;
+    private final CachedMpaRepository mpaRepository;
+
+    public String getVersion(final Catalog catalog) {
+        long genres = genreRepository.getCache().getVersion();
+        long mpa = mpaRepository.getCache().getVersion();
+
+        return switch (catalog) {
+            // Film payloads embed genre and MPA names.
+            case FILMS -> bootEpoch + "-" + filmRepository.getVersion() + "." + genres + "." + mpa;
+            case GENRES -> bootEpoch + "-" + genres;
+            case MPA -> bootEpoch + "-" + mpa;
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.repository.cache.CachedGenreRepository;
+import ru.yandex.practicum.filmorate.repository.cache.CachedMpaRepository;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DictionaryRefreshJob {
+    private final CachedGenreRepository genreRepository;
+    private final CachedMpaRepository mpaRepository;
+
+    // Dictionaries are only changed by migrations or by hand, a periodic reload picks that up without a restart.
+    @Scheduled(fixedDelayString = "${filmorate.dictionary.refresh-interval:PT10M}")
+    public void refresh() {
+        if (genreRepository.refresh()) {
+            log.info("Genre dictionary reloaded");
+        }
+
+        if (mpaRepository.refresh()) {
+            log.info("MPA dictionary reloaded");
+        }
+    }
+}
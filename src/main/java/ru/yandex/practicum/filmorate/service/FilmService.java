@@ -1,36 +1,79 @@
 package ru.yandex.practicum.filmorate.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.exception.InternalErrorException;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.BatchError;
+import ru.yandex.practicum.filmorate.model.BatchResult;
 import ru.yandex.practicum.filmorate.model.Film;
-import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Page;
 import ru.yandex.practicum.filmorate.repository.contracts.FilmRepository;
 import ru.yandex.practicum.filmorate.repository.contracts.GenreRepository;
 import ru.yandex.practicum.filmorate.repository.contracts.LikeRepository;
 import ru.yandex.practicum.filmorate.repository.contracts.MpaRepository;
-import ru.yandex.practicum.filmorate.repository.contracts.UserRepository;
+import ru.yandex.practicum.filmorate.repository.contracts.SearchField;
+import ru.yandex.practicum.filmorate.repository.contracts.WriteOutcome;
 
 import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 public class FilmService {
     private static final int DESCRIPTION_LIMIT = 200;
     private static final LocalDate RELEASE_MIN_DATE = LocalDate.of(1895, 12, 28);
+    // The year filter is a range up to the first day of the next year, which must still be a valid date.
+    private static final int POPULAR_MAX_YEAR = Year.MAX_VALUE - 1;
+    private static final int PAGE_LIMIT = 1000;
 
     private final FilmRepository filmRepository;
     private final LikeRepository likeRepository;
     private final MpaRepository mpaRepository;
     private final GenreRepository genreRepository;
-    private final UserRepository userRepository;
+
+    @Value("${filmorate.batch.chunk-size:500}")
+    private int batchChunkSize;
 
     public List<Film> getList() {
         return filmRepository.getAll();
     }
 
+    public Page<Film> getPage(final Long after, final int limit) {
+        if (after == null || after < 0) {
+            throw new ValidationException("Cursor must not be negative");
+        }
+
+        if (limit <= 0 || limit > PAGE_LIMIT) {
+            throw new ValidationException("Limit must be between 1 and " + PAGE_LIMIT);
+        }
+
+        List<Film> films = filmRepository.getPage(after, limit + 1);
+        Long nextCursor = null;
+
+        if (films.size() > limit) {
+            films = new ArrayList<>(films.subList(0, limit));
+            nextCursor = films.get(limit - 1).getId();
+        }
+
+        return Page.<Film>builder()
+                .items(films)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    public void streamAll(final Consumer<Film> consumer) {
+        filmRepository.streamAll(consumer);
+    }
+
     public Film getFilm(final Long id) {
         Film film = filmRepository.findById(id);
 
@@ -46,47 +89,124 @@ public class FilmService {
         return filmRepository.create(film);
     }
 
+    public BatchResult<Film> createAll(final List<Film> films) {
+        if (films == null) {
+            throw new ValidationException("Films are null");
+        }
+
+        List<Integer> validIndexes = new ArrayList<>(films.size());
+        List<BatchError> errors = new ArrayList<>();
+
+        for (int i = 0; i < films.size(); i++) {
+            try {
+                validate(films.get(i));
+                validIndexes.add(i);
+            } catch (ValidationException e) {
+                errors.add(new BatchError(i, e.getMessage()));
+            }
+        }
+
+        List<Film> created = new ArrayList<>(validIndexes.size());
+
+        for (int from = 0; from < validIndexes.size(); from += batchChunkSize) {
+            List<Integer> chunkIndexes = validIndexes.subList(from, Math.min(from + batchChunkSize, validIndexes.size()));
+
+            try {
+                created.addAll(filmRepository.createAll(chunkIndexes.stream().map(films::get).toList()));
+            } catch (InternalErrorException e) {
+                chunkIndexes.forEach(index -> errors.add(new BatchError(index, e.getMessage())));
+            }
+        }
+
+        // Validation errors come first and chunk failures later, callers expect them in input order.
+        errors.sort(Comparator.comparingInt(BatchError::getIndex));
+
+        return BatchResult.<Film>builder()
+                .created(created)
+                .errors(errors)
+                .build();
+    }
+
     public Film update(final Film film) {
         validate(film);
 
-        if (!filmRepository.isExists(film.getId())) {
+        Film updated = filmRepository.update(film);
+
+        if (updated == null) {
             throw new NotFoundException("Film not found");
         }
 
-        return filmRepository.update(film);
+        return updated;
     }
 
     public void addLike(final Long id, final Long userId) {
         validateFilmId(id);
         validateUserId(userId);
-        filmAndUserExists(id, userId);
 
-        likeRepository.addLike(id, userId);
+        checkOutcome(likeRepository.addLike(id, userId));
     }
 
     public void deleteLike(final Long id, final Long userId) {
         validateFilmId(id);
         validateUserId(userId);
-        filmAndUserExists(id, userId);
 
-        likeRepository.deleteLike(id, userId);
+        checkOutcome(likeRepository.deleteLike(id, userId));
     }
 
-    public List<Film> getPopular(final int count) {
+    public List<Film> getPopular(final int count, final Long genreId, final Integer year) {
         if (count <= 0) {
             throw new ValidationException("Count must be greater than 0");
         }
 
-        return filmRepository.getPopular(count);
+        if (genreId == null && year == null) {
+            return filmRepository.getPopular(count);
+        }
+
+        if (genreId != null && genreRepository.findById(genreId) == null) {
+            throw new NotFoundException("Genre not found");
+        }
+
+        if (year != null && (year < RELEASE_MIN_DATE.getYear() || year > POPULAR_MAX_YEAR)) {
+            throw new ValidationException(
+                    "Year must be between " + RELEASE_MIN_DATE.getYear() + " and " + POPULAR_MAX_YEAR
+            );
+        }
+
+        return filmRepository.getPopular(count, genreId, year);
     }
 
-    private void filmAndUserExists(final Long filmId, final Long userId) {
-        if (!filmRepository.isExists(filmId)) {
-            throw new NotFoundException("Film not found");
+    public List<Film> search(final String query, final List<String> by, final int count) {
+        if (query == null || query.isBlank()) {
+            throw new ValidationException("Query must not be blank");
         }
 
-        if (!userRepository.isExists(userId)) {
-            throw new NotFoundException("User not found");
+        if (count <= 0) {
+            throw new ValidationException("Count must be greater than 0");
+        }
+
+        Set<SearchField> fields = EnumSet.noneOf(SearchField.class);
+
+        for (String field : by) {
+            switch (field.trim()) {
+                case "title" -> fields.add(SearchField.TITLE);
+                case "description" -> fields.add(SearchField.DESCRIPTION);
+                default -> throw new ValidationException("Unknown search field: " + field);
+            }
+        }
+
+        if (fields.isEmpty()) {
+            throw new ValidationException("Search fields must not be empty");
+        }
+
+        return filmRepository.search(query, fields, count);
+    }
+
+    private void checkOutcome(final WriteOutcome outcome) {
+        switch (outcome) {
+            case FILM_NOT_FOUND -> throw new NotFoundException("Film not found");
+            case USER_NOT_FOUND -> throw new NotFoundException("User not found");
+            default -> {
+            }
         }
     }
 
@@ -120,9 +240,8 @@ public class FilmService {
         }
 
         if (film.getGenres() != null && !film.getGenres().isEmpty()) {
-            List<Long> availableIds = genreRepository.getAll().stream().map(Genre::getId).toList();
             film.getGenres().forEach(genre -> {
-                if (genre.getId() == null || !availableIds.contains(genre.getId())) {
+                if (genre == null || genreRepository.findById(genre.getId()) == null) {
                     throw new ValidationException("Invalid Genre id");
                 }
             });
@@ -0,0 +1,27 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.repository.contracts.FriendshipRepository;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FriendGraphReconciliationJob {
+    private final FriendshipRepository friendshipRepository;
+
+    // The graph is seeded on startup, so the first pass waits a full interval.
+    @Scheduled(
+            initialDelayString = "${filmorate.friends.reconcile-interval:PT1H}",
+            fixedDelayString = "${filmorate.friends.reconcile-interval:PT1H}"
+    )
+    public void reconcile() {
+        int corrected = friendshipRepository.reconcileFriendGraph();
+
+        if (corrected > 0) {
+            log.warn("Repaired friend graph drift for {} users", corrected);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.repository.contracts.LikeRepository;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LikeCountReconciliationJob {
+    private final LikeRepository likeRepository;
+
+    // Indexes are seeded on startup, so the first pass waits a full interval.
+    @Scheduled(
+            initialDelayString = "${filmorate.likes.reconcile-interval:PT1H}",
+            fixedDelayString = "${filmorate.likes.reconcile-interval:PT1H}"
+    )
+    public void reconcile() {
+        int repaired = likeRepository.reconcileLikeCounts();
+
+        if (repaired > 0) {
+            log.warn("Repaired like_count drift for {} films", repaired);
+        }
+
+        int corrected = likeRepository.reconcileLikeMatrix();
+
+        if (corrected > 0) {
+            log.warn("Like matrix corrected for {} users", corrected);
+        }
+    }
+}
@@ -1,26 +1,73 @@
 package ru.yandex.practicum.filmorate.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.exception.InternalErrorException;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.BatchError;
+import ru.yandex.practicum.filmorate.model.BatchResult;
+import ru.yandex.practicum.filmorate.model.BatchSummary;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Friendship;
+import ru.yandex.practicum.filmorate.model.Page;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.repository.contracts.FilmRepository;
 import ru.yandex.practicum.filmorate.repository.contracts.FriendshipRepository;
+import ru.yandex.practicum.filmorate.repository.contracts.LikeRepository;
 import ru.yandex.practicum.filmorate.repository.contracts.UserRepository;
+import ru.yandex.practicum.filmorate.repository.contracts.WriteOutcome;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
+    private static final int PAGE_LIMIT = 1000;
+    private static final int RECOMMENDATION_LIMIT = 100;
+
     private final UserRepository userRepository;
     private final FriendshipRepository friendshipRepository;
+    private final LikeRepository likeRepository;
+    private final FilmRepository filmRepository;
+
+    @Value("${filmorate.batch.chunk-size:500}")
+    private int batchChunkSize;
 
     public List<User> getList() {
         return userRepository.getAll();
     }
 
+    public Page<User> getPage(final Long after, final int limit) {
+        if (after == null || after < 0) {
+            throw new ValidationException("Cursor must not be negative");
+        }
+
+        if (limit <= 0 || limit > PAGE_LIMIT) {
+            throw new ValidationException("Limit must be between 1 and " + PAGE_LIMIT);
+        }
+
+        List<User> users = userRepository.getPage(after, limit + 1);
+        Long nextCursor = null;
+
+        if (users.size() > limit) {
+            users = new ArrayList<>(users.subList(0, limit));
+            nextCursor = users.get(limit - 1).getId();
+        }
+
+        return Page.<User>builder()
+                .items(users)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
     public User create(final User user) {
         validateUserData(user);
         setNameIfEmpty(user);
@@ -28,6 +75,77 @@ public class UserService {
         return userRepository.create(user);
     }
 
+    public BatchResult<User> createAll(final List<User> users) {
+        if (users == null) {
+            throw new ValidationException("Users are null");
+        }
+
+        List<Integer> validIndexes = new ArrayList<>(users.size());
+        List<BatchError> errors = new ArrayList<>();
+
+        for (int i = 0; i < users.size(); i++) {
+            try {
+                validateUserData(users.get(i));
+                setNameIfEmpty(users.get(i));
+                validIndexes.add(i);
+            } catch (ValidationException e) {
+                errors.add(new BatchError(i, e.getMessage()));
+            }
+        }
+
+        List<User> created = new ArrayList<>(validIndexes.size());
+
+        for (int from = 0; from < validIndexes.size(); from += batchChunkSize) {
+            List<Integer> chunkIndexes = uniqueInChunk(
+                    users,
+                    validIndexes.subList(from, Math.min(from + batchChunkSize, validIndexes.size())),
+                    errors
+            );
+
+            try {
+                created.addAll(userRepository.createAll(chunkIndexes.stream().map(users::get).toList()));
+            } catch (InternalErrorException e) {
+                chunkIndexes.forEach(index -> errors.add(new BatchError(index, e.getMessage())));
+            }
+        }
+
+        // Validation errors come first and chunk failures later, callers expect them in input order.
+        errors.sort(Comparator.comparingInt(BatchError::getIndex));
+
+        return BatchResult.<User>builder()
+                .created(created)
+                .errors(errors)
+                .build();
+    }
+
+    public BatchSummary addFriends(final Iterator<Friendship> friendships) {
+        BatchSummary summary = new BatchSummary();
+        List<Friendship> chunk = new ArrayList<>(batchChunkSize);
+        int index = 0;
+
+        while (friendships.hasNext()) {
+            Friendship friendship = friendships.next();
+
+            try {
+                validateUserFriend(friendship.getUserId(), friendship.getFriendId());
+                chunk.add(friendship);
+            } catch (ValidationException e) {
+                summary.addError(index, e.getMessage());
+            }
+
+            index++;
+            summary.setProcessed(index);
+
+            if (chunk.size() >= batchChunkSize) {
+                flushFriends(chunk, summary);
+            }
+        }
+
+        flushFriends(chunk, summary);
+
+        return summary;
+    }
+
     public User update(final User user) {
         validateUserData(user);
         setNameIfEmpty(user);
@@ -56,35 +174,95 @@ public class UserService {
             throw new NotFoundException("Friend not found");
         }
 
-        return friendshipRepository.findCommonFriends(id, otherId);
+        return userRepository.findByIds(friendshipRepository.findCommonFriendIds(id, otherId));
     }
 
-    public void addFriend(final Long userId, final Long friendId) {
-        validateUserFriend(userId, friendId);
+    public List<User> getRecommendedFriends(final Long userId, final int count) {
+        if (count <= 0 || count > RECOMMENDATION_LIMIT) {
+            throw new ValidationException("Count must be between 1 and " + RECOMMENDATION_LIMIT);
+        }
 
         if (!userRepository.isExists(userId)) {
             throw new NotFoundException("User not found");
         }
 
-        if (!userRepository.isExists(friendId)) {
-            throw new NotFoundException("Friend not found");
+        return userRepository.findByIds(friendshipRepository.findRecommendedFriendIds(userId, count));
+    }
+
+    public List<Film> getRecommendedFilms(final Long userId, final int count) {
+        if (count <= 0 || count > RECOMMENDATION_LIMIT) {
+            throw new ValidationException("Count must be between 1 and " + RECOMMENDATION_LIMIT);
+        }
+
+        if (!userRepository.isExists(userId)) {
+            throw new NotFoundException("User not found");
         }
 
-        friendshipRepository.addFriend(userId, friendId);
+        return filmRepository.findByIds(likeRepository.findRecommendedFilmIds(userId, count));
+    }
+
+    public void addFriend(final Long userId, final Long friendId) {
+        validateUserFriend(userId, friendId);
+
+        checkOutcome(friendshipRepository.addFriend(userId, friendId));
     }
 
     public void deleteFriend(final Long userId, final Long friendId) {
         validateUserFriend(userId, friendId);
 
-        if (!userRepository.isExists(userId)) {
-            throw new NotFoundException("User not found");
+        checkOutcome(friendshipRepository.deleteFriend(userId, friendId));
+    }
+
+    private List<Integer> uniqueInChunk(final List<User> users, final List<Integer> indexes, final List<BatchError> errors) {
+        Set<String> emails = new HashSet<>();
+        Set<String> logins = new HashSet<>();
+
+        userRepository.findByEmailsOrLogins(
+                indexes.stream().map(index -> users.get(index).getEmail()).toList(),
+                indexes.stream().map(index -> users.get(index).getLogin()).toList()
+        ).forEach(existing -> {
+            emails.add(existing.getEmail());
+            logins.add(existing.getLogin());
+        });
+
+        List<Integer> unique = new ArrayList<>(indexes.size());
+
+        for (Integer index : indexes) {
+            User user = users.get(index);
+
+            if (emails.contains(user.getEmail())) {
+                errors.add(new BatchError(index, "Email is already taken"));
+            } else if (logins.contains(user.getLogin())) {
+                errors.add(new BatchError(index, "Login is already taken"));
+            } else {
+                emails.add(user.getEmail());
+                logins.add(user.getLogin());
+                unique.add(index);
+            }
         }
 
-        if (!userRepository.isExists(friendId)) {
-            throw new NotFoundException("Friend not found");
+        return unique;
+    }
+
+    private void flushFriends(final List<Friendship> chunk, final BatchSummary summary) {
+        if (chunk.isEmpty()) {
+            return;
         }
 
-        friendshipRepository.deleteFriend(userId, friendId);
+        int created = friendshipRepository.addFriends(chunk);
+
+        summary.setCreated(summary.getCreated() + created);
+        summary.setSkipped(summary.getSkipped() + chunk.size() - created);
+        chunk.clear();
+    }
+
+    private void checkOutcome(final WriteOutcome outcome) {
+        switch (outcome) {
+            case USER_NOT_FOUND -> throw new NotFoundException("User not found");
+            case FRIEND_NOT_FOUND -> throw new NotFoundException("Friend not found");
+            default -> {
+            }
+        }
     }
 
     private void validateUserData(final User user) {
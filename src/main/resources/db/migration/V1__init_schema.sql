@@ -1,5 +1,3 @@
-DROP ALL OBJECTS;
-
 CREATE TABLE IF NOT EXISTS films (
     id long generated by default as identity primary key,
     mpa_id long not null,
@@ -50,4 +48,4 @@ CREATE TABLE IF NOT EXISTS friendship (
     foreign key (user_id) references users (id) on DELETE cascade,
     foreign key (friend_id) references users (id) on DELETE cascade,
     primary key (user_id, friend_id)
-);
\ No newline at end of file
+);
@@ -0,0 +1,3 @@
+CREATE INDEX IF NOT EXISTS films_mpa_idx ON films (mpa_id);
+CREATE INDEX IF NOT EXISTS film_like_user_idx ON film_like (user_id, film_id);
+CREATE INDEX IF NOT EXISTS friendship_friend_idx ON friendship (friend_id, user_id);
@@ -0,0 +1,6 @@
+ALTER TABLE films ADD COLUMN IF NOT EXISTS like_count int not null default 0;
+
+UPDATE films AS f
+SET like_count = (SELECT COUNT(*) FROM film_like AS l WHERE l.film_id = f.id);
+
+CREATE INDEX IF NOT EXISTS films_like_count_idx ON films (like_count DESC, id);
@@ -0,0 +1,65 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.repository.cache.DictionaryCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DictionaryCacheTests {
+    private final List<Genre> rows = new ArrayList<>(List.of(genre(1L, "Комедия"), genre(2L, "Драма")));
+    private final AtomicInteger loads = new AtomicInteger();
+    private final DictionaryCache<Genre> cache = new DictionaryCache<>(
+            () -> {
+                loads.incrementAndGet();
+                return rows.stream().map(genre -> genre.toBuilder().build()).toList();
+            },
+            Genre::getId,
+            genre -> genre.toBuilder().build()
+    );
+
+    private static Genre genre(final Long id, final String name) {
+        return Genre.builder().id(id).name(name).build();
+    }
+
+    @Test
+    public void loadedOnceAndServedFromCache() {
+        assertEquals(rows, cache.getAll(), "Dictionary not loaded");
+        assertEquals("Драма", cache.findById(2L).getName(), "Value not found by id");
+        assertNull(cache.findById(3L), "Missing id found");
+
+        assertEquals(1, loads.get(), "Dictionary loaded more than once");
+        assertEquals(2, cache.getMissCount(), "Load or missing id not counted as miss");
+        assertEquals(1, cache.getHitCount(), "Found value not counted as hit");
+    }
+
+    @Test
+    public void callersGetCopies() {
+        cache.findById(1L).setName("Changed");
+        cache.getAll().getFirst().setName("Changed");
+
+        assertEquals("Комедия", cache.findById(1L).getName(), "Cached value changed by caller");
+    }
+
+    @Test
+    public void refreshBumpsVersionOnlyWhenChanged() {
+        cache.getAll();
+        long version = cache.getVersion();
+
+        assertFalse(cache.refresh(), "Unchanged dictionary reported as reloaded");
+        assertEquals(version, cache.getVersion(), "Version bumped without changes");
+
+        rows.set(1, genre(2L, "Драма 2"));
+
+        assertTrue(cache.refresh(), "Changed dictionary not reloaded");
+        assertEquals(version + 1, cache.getVersion(), "Version not bumped after change");
+        assertEquals("Драма 2", cache.findById(2L).getName(), "Reloaded value not served");
+    }
+}
@@ -1,13 +1,31 @@
 package ru.yandex.practicum.filmorate;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.yandex.practicum.filmorate.exception.InternalErrorException;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.BatchResult;
 import ru.yandex.practicum.filmorate.model.Film;
-
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.repository.contracts.FilmRepository;
+import ru.yandex.practicum.filmorate.repository.contracts.LikeRepository;
+import ru.yandex.practicum.filmorate.repository.index.PopularFilmIndex;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -19,6 +37,24 @@ public class FilmControllerTests {
     @Autowired
     private ru.yandex.practicum.filmorate.controller.FilmController controller;
 
+    @Autowired
+    private ru.yandex.practicum.filmorate.controller.UserController userController;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private FilmRepository filmRepository;
+
+    @Autowired
+    private PopularFilmIndex popularFilmIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     private static Film makeFilm() {
         return Film.builder()
                 .name(generateString(20))
@@ -28,6 +64,16 @@ public class FilmControllerTests {
                 .build();
     }
 
+    private static User makeUser() {
+        String login = generateString(16);
+        return User.builder()
+                .name("User " + login)
+                .login(login)
+                .email(login + "@sample.host")
+                .birthday(LocalDate.of(1990, 8, 1))
+                .build();
+    }
+
     private static String generateString(int length) {
         int leftLimit = 97; // letter 'a'
         int rightLimit = 122; // letter 'z'
@@ -160,4 +206,184 @@ public class FilmControllerTests {
         assertDoesNotThrow(() -> controller.create(film), "Validation failed");
         assertDoesNotThrow(() -> controller.create(film2), "Validation failed");
     }
+
+    @Test
+    public void popularOrderedByLikes() {
+        Film film = controller.create(makeFilm());
+        Film film2 = controller.create(makeFilm());
+        User user = userController.create(makeUser());
+        User user2 = userController.create(makeUser());
+
+        controller.addLike(film2.getId(), user.getId());
+        controller.addLike(film2.getId(), user2.getId());
+        controller.addLike(film.getId(), user.getId());
+
+        List<Long> popular = controller.popular(Integer.MAX_VALUE, null, null).stream().map(Film::getId).toList();
+
+        assertTrue(popular.indexOf(film2.getId()) >= 0, "Film not in popular list");
+        assertTrue(popular.indexOf(film2.getId()) < popular.indexOf(film.getId()), "Popular order is invalid");
+
+        controller.deleteLike(film2.getId(), user.getId());
+        controller.deleteLike(film2.getId(), user2.getId());
+
+        popular = controller.popular(Integer.MAX_VALUE, null, null).stream().map(Film::getId).toList();
+
+        assertTrue(popular.indexOf(film.getId()) < popular.indexOf(film2.getId()), "Popular order not updated");
+    }
+
+    @Test
+    public void filmRolledBackWhenGenresFail() {
+        Film film = makeFilm();
+        film.setName("Rolled back " + System.nanoTime());
+        film.getGenres().add(Genre.builder().id(Long.MAX_VALUE).build());
+
+        assertThrows(InternalErrorException.class, () -> filmRepository.create(film), "Unknown genre saved");
+        assertTrue(
+                controller.list().stream().noneMatch(saved -> saved.getName().equals(film.getName())),
+                "Film saved without its genres"
+        );
+    }
+
+    @Test
+    public void popularIndexFollowsCommittedLikes() {
+        Film film = controller.create(makeFilm());
+        Film film2 = controller.create(makeFilm());
+        User user = userController.create(makeUser());
+        User user2 = userController.create(makeUser());
+
+        controller.addLike(film2.getId(), user.getId());
+        transactionTemplate.executeWithoutResult(status -> {
+            likeRepository.addLike(film.getId(), user.getId());
+            likeRepository.addLike(film.getId(), user2.getId());
+            status.setRollbackOnly();
+        });
+
+        assertTrue(popularIds().indexOf(film2.getId()) < popularIds().indexOf(film.getId()), "Rolled back likes counted");
+
+        popularFilmIndex.beginChange(Set.of(film.getId()));
+        popularFilmIndex.endChange(Set.of(film.getId()), Map.of(film.getId(), 5L));
+        likeRepository.reconcileLikeCounts();
+
+        assertTrue(popularIds().indexOf(film2.getId()) < popularIds().indexOf(film.getId()), "Drifted index not reconciled");
+    }
+
+    private List<Long> popularIds() {
+        return controller.popular(Integer.MAX_VALUE, null, null).stream().map(Film::getId).toList();
+    }
+
+    @Test
+    public void filmsStreamedAsOrderedJsonLines() throws IOException {
+        Film withGenres = makeFilm();
+        withGenres.getGenres().add(Genre.builder().id(2L).build());
+        withGenres.getGenres().add(Genre.builder().id(1L).build());
+        Film first = controller.create(withGenres);
+        Film second = controller.create(makeFilm());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        controller.stream().getBody().writeTo(out);
+        String body = out.toString(StandardCharsets.UTF_8);
+
+        assertTrue(body.endsWith("\n"), "Last line not terminated");
+
+        List<JsonNode> films = new ArrayList<>();
+
+        for (String line : body.split("\n")) {
+            films.add(objectMapper.readTree(line));
+        }
+
+        List<Long> ids = films.stream().map(film -> film.get("id").asLong()).toList();
+
+        assertEquals(ids.stream().sorted().distinct().toList(), ids, "Films not streamed once in id order");
+        assertEquals(controller.list().size(), ids.size(), "Not all films streamed");
+
+        JsonNode streamed = films.get(ids.indexOf(first.getId()));
+        List<Long> genreIds = new ArrayList<>();
+        streamed.get("genres").forEach(genre -> {
+            genreIds.add(genre.get("id").asLong());
+            assertFalse(genre.get("name").asText().isEmpty(), "Genre name not streamed");
+        });
+
+        assertEquals(List.of(1L, 2L), genreIds.stream().sorted().toList(), "Genres not grouped into film");
+        assertTrue(films.get(ids.indexOf(second.getId())).get("genres").isEmpty(), "Genres of other film leaked");
+    }
+
+    @Test
+    public void batchCreateReportsInvalidItems() {
+        Film invalid = makeFilm();
+        invalid.setName("");
+
+        BatchResult<Film> result = controller.createAll(List.of(makeFilm(), invalid, makeFilm()));
+
+        assertEquals(2, result.getCreated().size(), "Valid films not created");
+        assertEquals(1, result.getErrors().size(), "Invalid film not reported");
+        assertEquals(1, result.getErrors().getFirst().getIndex(), "Invalid error index");
+        result.getCreated().forEach(film -> assertEquals(
+                film.getName(),
+                controller.getFilm(film.getId()).getName(),
+                "Film not saved"
+        ));
+    }
+
+    @Test
+    public void popularFilmsContainGenres() {
+        Film film = makeFilm();
+        film.getGenres().add(Genre.builder().id(1L).build());
+        Film created = controller.create(film);
+
+        Film popular = controller.popular(Integer.MAX_VALUE, null, null).stream()
+                .filter(item -> item.getId().equals(created.getId()))
+                .findFirst()
+                .orElseThrow();
+
+        assertEquals(created.getGenres(), popular.getGenres(), "Popular film genres not filled");
+    }
+
+    @Test
+    public void popularFilteredByGenreAndYear() {
+        Film film = makeFilm();
+        film.getGenres().add(Genre.builder().id(2L).build());
+        film.setReleaseDate(LocalDate.of(1999, 5, 1));
+        Film matching = controller.create(film);
+
+        Film otherYear = makeFilm();
+        otherYear.getGenres().add(Genre.builder().id(2L).build());
+        otherYear.setReleaseDate(LocalDate.of(2000, 1, 1));
+        Film otherYearCreated = controller.create(otherYear);
+
+        Film otherGenre = makeFilm();
+        otherGenre.setReleaseDate(LocalDate.of(1999, 5, 1));
+        Film otherGenreCreated = controller.create(otherGenre);
+
+        List<Long> popular = controller.popular(Integer.MAX_VALUE, 2L, 1999).stream().map(Film::getId).toList();
+
+        assertTrue(popular.contains(matching.getId()), "Matching film not returned");
+        assertFalse(popular.contains(otherYearCreated.getId()), "Year filter not applied");
+        assertFalse(popular.contains(otherGenreCreated.getId()), "Genre filter not applied");
+        assertThrows(NotFoundException.class, () -> controller.popular(10, Long.MAX_VALUE, null), "Missing genre not detected");
+        assertThrows(ValidationException.class, () -> controller.popular(10, null, 1_000_000_000), "Too late year accepted");
+    }
+
+    @Test
+    public void filmsFoundByCyrillicText() {
+        String word = generateString(12);
+        Film film = makeFilm();
+        film.setName("Ёлка " + word);
+        Film byTitle = controller.create(film);
+
+        Film described = makeFilm();
+        described.setDescription("Новогодняя елка и " + word);
+        Film byDescription = controller.create(described);
+
+        List<Long> found = controller.search("елка " + word, List.of("title", "description"), 10).stream()
+                .map(Film::getId)
+                .toList();
+
+        assertEquals(List.of(byTitle.getId(), byDescription.getId()), found, "Invalid search ranking");
+        assertEquals(
+                List.of(byTitle.getId()),
+                controller.search(word.substring(0, 6), List.of("title"), 10).stream().map(Film::getId).toList(),
+                "Prefix search by title failed"
+        );
+        assertThrows(ValidationException.class, () -> controller.search(word, List.of("genre"), 10), "Unknown field not detected");
+    }
 }
@@ -0,0 +1,55 @@
+package ru.yandex.practicum.filmorate;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MigrationTests {
+    @Test
+    public void preMigrationDatabaseUpgraded() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:baseline;DB_CLOSE_DELAY=-1",
+                "sa",
+                "password"
+        );
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        // A database created by the old schema.sql and data.sql, without Flyway history.
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__init_schema.sql")).execute(dataSource);
+        jdbc.update("INSERT INTO mpas (name) VALUES ('G'), ('PG'), ('PG-13'), ('R'), ('NC-17')");
+        jdbc.update("INSERT INTO users (email, login, name) VALUES ('a@sample.host', 'a', 'A'), ('b@sample.host', 'b', 'B')");
+        jdbc.update("INSERT INTO films (mpa_id, name, duration) VALUES (1, 'Liked', 100), (2, 'Unliked', 100)");
+        jdbc.update("INSERT INTO film_like (film_id, user_id) VALUES (1, 1), (1, 2)");
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+
+        assertEquals(
+                List.of(2, 0),
+                jdbc.queryForList("SELECT like_count FROM films ORDER BY id", Integer.class),
+                "like_count not backfilled"
+        );
+        assertEquals(5, jdbc.queryForObject("SELECT COUNT(*) FROM mpas", Integer.class), "Mpa duplicated");
+        assertEquals(
+                List.of("FILMS_LIKE_COUNT_IDX", "FILMS_RELEASE_DATE_IDX", "FILM_GENRE_GENRE_IDX"),
+                jdbc.queryForList(
+                        "SELECT DISTINCT index_name FROM information_schema.indexes " +
+                                "WHERE index_name IN ('FILMS_LIKE_COUNT_IDX', 'FILMS_RELEASE_DATE_IDX', " +
+                                "'FILM_GENRE_GENRE_IDX') ORDER BY index_name",
+                        String.class
+                ),
+                "Indexes not created"
+        );
+    }
+}
@@ -0,0 +1,161 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.yandex.practicum.filmorate.metrics.SlowQueryLog;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.SlowQuery;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.repository.contracts.FilmRepository;
+import ru.yandex.practicum.filmorate.repository.contracts.FriendshipRepository;
+import ru.yandex.practicum.filmorate.repository.contracts.LikeRepository;
+import ru.yandex.practicum.filmorate.repository.contracts.UserRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Every statement is recorded and explained, so the plans checked are those of the SQL the repositories run.
+@SpringBootTest(properties = {
+        "filmorate.slow-query.enabled=true",
+        "filmorate.slow-query.threshold-ms=0",
+        "filmorate.slow-query.explain=true",
+        "filmorate.slow-query.capacity=1000"
+})
+public class QueryPlanTests {
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static final long PLAN_TIMEOUT_MS = 10_000;
+    // H2 marks table scans as "/* PUBLIC.FILMS.tableScan */" and walks of an index without a condition as
+    // "/* PUBLIC.FILMS_LIKE_COUNT_IDX */", index lookups carry the condition after a colon.
+    private static final Pattern FULL_SCAN = Pattern.compile("/\\* PUBLIC\\.[\\w.]+ \\*/");
+
+    @Autowired
+    private FilmRepository filmRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private FriendshipRepository friendshipRepository;
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    private Film film;
+    private User user;
+    private User friend;
+
+    @BeforeEach
+    public void createData() {
+        Film newFilm = Film.builder()
+                .name("Query plan")
+                .description("Query plan")
+                .duration(100)
+                .releaseDate(LocalDate.of(2000, 5, 1))
+                .mpa(Mpa.builder().id(1L).build())
+                .build();
+        newFilm.getGenres().add(Genre.builder().id(1L).build());
+
+        film = filmRepository.create(newFilm);
+        user = userRepository.create(makeUser());
+        friend = userRepository.create(makeUser());
+    }
+
+    @Test
+    public void popularByGenreAndYearUsesIndexes() throws InterruptedException {
+        assertIndexed(() -> filmRepository.getPopular(10, 1L, 2000));
+    }
+
+    @Test
+    public void popularByGenreUsesIndexes() throws InterruptedException {
+        assertIndexed(() -> filmRepository.getPopular(10, 1L, null));
+    }
+
+    @Test
+    public void popularByYearUsesIndexes() throws InterruptedException {
+        assertIndexed(() -> filmRepository.getPopular(10, null, 2000));
+    }
+
+    @Test
+    public void filmPageUsesIndexes() throws InterruptedException {
+        assertIndexed(() -> filmRepository.getPage(film.getId() - 1, 10));
+    }
+
+    @Test
+    public void filmLookupUsesIndexes() throws InterruptedException {
+        assertIndexed(() -> filmRepository.findByIds(List.of(film.getId())));
+        assertIndexed(() -> filmRepository.findById(film.getId()));
+    }
+
+    @Test
+    public void likeWritesUseIndexes() throws InterruptedException {
+        assertIndexed(() -> likeRepository.addLike(film.getId(), user.getId()));
+        assertIndexed(() -> likeRepository.addLike(film.getId(), user.getId()));
+        assertIndexed(() -> likeRepository.deleteLike(film.getId(), user.getId()));
+    }
+
+    @Test
+    public void friendshipWritesUseIndexes() throws InterruptedException {
+        assertIndexed(() -> friendshipRepository.addFriend(user.getId(), friend.getId()));
+        assertIndexed(() -> friendshipRepository.addFriend(user.getId(), friend.getId()));
+        assertIndexed(() -> friendshipRepository.findFriendsByUserId(user.getId()));
+        assertIndexed(() -> friendshipRepository.deleteFriend(user.getId(), friend.getId()));
+    }
+
+    @Test
+    public void userLookupUsesIndexes() throws InterruptedException {
+        assertIndexed(() -> userRepository.findByIds(List.of(user.getId(), friend.getId())));
+    }
+
+    private void assertIndexed(final Runnable call) throws InterruptedException {
+        slowQueryLog.clear();
+        call.run();
+
+        List<SlowQuery> executed = awaitPlans();
+
+        assertFalse(executed.isEmpty(), "No queries recorded");
+        executed.forEach(query -> assertFalse(
+                FULL_SCAN.matcher(query.getPlan()).find(),
+                "Full scan in plan of " + query.getSql() + ": " + query.getPlan()
+        ));
+    }
+
+    private List<SlowQuery> awaitPlans() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(PLAN_TIMEOUT_MS);
+
+        while (System.nanoTime() < deadline) {
+            List<SlowQuery> executed = slowQueryLog.recent(Integer.MAX_VALUE);
+
+            if (executed.stream().allMatch(query -> query.getPlan() != null)) {
+                return executed;
+            }
+
+            Thread.sleep(10);
+        }
+
+        return fail("Plans not attached in " + PLAN_TIMEOUT_MS + " ms");
+    }
+
+    private static User makeUser() {
+        String login = "plan" + SEQUENCE.incrementAndGet() + "x" + System.nanoTime();
+
+        return User.builder()
+                .name(login)
+                .login(login)
+                .email(login + "@sample.host")
+                .birthday(LocalDate.of(1990, 8, 1))
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package ru.yandex.practicum.filmorate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.yandex.practicum.filmorate.exception.InternalErrorException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.repository.contracts.FilmRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+public class RepositoryMetricsTests {
+    private static final String TIMER_NAME = "filmorate.repository.calls";
+    private static final String ROWS_NAME = "filmorate.repository.rows";
+    private static final String REPOSITORY = "FilmDbRepository";
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private FilmRepository filmRepository;
+
+    private static Film makeFilm(final String name) {
+        return Film.builder()
+                .name(name)
+                .description("Metrics")
+                .duration(100)
+                .releaseDate(LocalDate.of(2021, 11, 27))
+                .build();
+    }
+
+    @Test
+    public void callsTimedAndRowsCountedPerMethod() {
+        filmRepository.create(makeFilm("Metrics"));
+        filmRepository.getAll();
+
+        double rowsBefore = rows("getAll");
+        long callsBefore = timer("getAll", "success").count();
+        List<Film> films = filmRepository.getAll();
+
+        assertEquals(callsBefore + 1, timer("getAll", "success").count(), "Call not timed");
+        assertEquals(rowsBefore + films.size(), rows("getAll"), "Rows not counted");
+        assertNull(find("getAll", "error"), "Error timer registered without errors");
+    }
+
+    @Test
+    public void errorTimerRegisteredOnFailure() {
+        Timer before = find("create", "error");
+        long failuresBefore = before == null ? 0 : before.count();
+
+        assertThrows(InternalErrorException.class, () -> filmRepository.create(makeFilm(null)), "Invalid film saved");
+
+        assertEquals(failuresBefore + 1, timer("create", "error").count(), "Failure not timed");
+    }
+
+    private Timer timer(final String method, final String outcome) {
+        Timer timer = find(method, outcome);
+        assertNotNull(timer, "Timer for " + method + " not registered");
+
+        return timer;
+    }
+
+    private Timer find(final String method, final String outcome) {
+        return registry.find(TIMER_NAME)
+                .tag("repository", REPOSITORY)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .timer();
+    }
+
+    private double rows(final String method) {
+        Counter counter = registry.find(ROWS_NAME).tag("repository", REPOSITORY).tag("method", method).counter();
+        assertNotNull(counter, "Rows counter for " + method + " not registered");
+
+        return counter.count();
+    }
+}
@@ -0,0 +1,136 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import ru.yandex.practicum.filmorate.controller.SlowQueryController;
+import ru.yandex.practicum.filmorate.controller.UserController;
+import ru.yandex.practicum.filmorate.metrics.SlowQueryDataSource;
+import ru.yandex.practicum.filmorate.metrics.SlowQueryLog;
+import ru.yandex.practicum.filmorate.model.SlowQuery;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "filmorate.slow-query.enabled=true",
+        "filmorate.slow-query.threshold-ms=0",
+        "filmorate.slow-query.explain=false"
+})
+public class SlowQueryLogTests {
+    @Autowired
+    private UserController userController;
+
+    @Autowired
+    private SlowQueryController slowQueryController;
+
+    @Test
+    public void queriesRecordedWithRedactedParameters() {
+        slowQueryController.clear();
+        User user = userController.create(User.builder()
+                .name("Slow query")
+                .login("slowquery")
+                .email("slowquery@sample.host")
+                .birthday(LocalDate.of(1990, 8, 1))
+                .build());
+
+        SlowQuery insert = slowQueryController.list(100).stream()
+                .filter(query -> query.getSql().startsWith("INSERT INTO users"))
+                .findFirst()
+                .orElseThrow();
+
+        assertTrue(insert.getParameters().contains("'***'"), "Parameters not redacted");
+        assertFalse(insert.getParameters().contains(user.getEmail()), "Email leaked into slow query log");
+    }
+
+    @Test
+    public void oldestEntriesEvictedAtCapacity() {
+        SlowQueryLog log = new SlowQueryLog(2);
+
+        for (String sql : List.of("SELECT 1", "SELECT 2", "SELECT 3")) {
+            log.add(SlowQuery.builder().timestamp(Instant.now()).sql(sql).build());
+        }
+
+        assertEquals(
+                List.of("SELECT 3", "SELECT 2"),
+                log.recent(10).stream().map(SlowQuery::getSql).toList(),
+                "Oldest entry not evicted"
+        );
+    }
+
+    @Test
+    public void rowsCountedAndPlanAttached() throws Exception {
+        SlowQueryLog log = new SlowQueryLog(10);
+        long pauseMs = 300;
+
+        try (SlowQueryDataSource dataSource = new SlowQueryDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:slowquery;DB_CLOSE_DELAY=-1"),
+                log,
+                0,
+                true
+        )) {
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            jdbc.execute("CREATE TABLE item (id int PRIMARY KEY)");
+            jdbc.batchUpdate("INSERT INTO item (id) VALUES (?)", List.of(new Object[] {1}, new Object[] {2}, new Object[] {3}));
+            log.clear();
+
+            jdbc.query("SELECT id FROM item WHERE id > ?", rs -> {
+                // Stands for row mapping and client writes, which must not count as query time.
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(pauseMs));
+            }, 0);
+
+            SlowQuery select = log.recent(1).getFirst();
+
+            assertEquals(3, select.getRows(), "Rows not counted");
+            assertTrue(select.getDurationMs() < 3 * pauseMs, "Row processing counted as query time");
+            assertNotNull(awaitPlan(log), "Plan not attached");
+        }
+    }
+
+    @Test
+    public void fastQueryResultSetNotWrapped() throws Exception {
+        try (SlowQueryDataSource dataSource = new SlowQueryDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:fastquery;DB_CLOSE_DELAY=-1"),
+                new SlowQueryLog(10),
+                60_000,
+                false
+        );
+             Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT 1");
+             ResultSet rs = statement.executeQuery()) {
+            assertFalse(Proxy.isProxyClass(rs.getClass()), "Result set of fast query wrapped");
+        }
+    }
+
+    private static String awaitPlan(final SlowQueryLog log) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+        while (System.nanoTime() < deadline) {
+            String plan = log.recent(1).getFirst().getPlan();
+
+            if (plan != null) {
+                assertTrue(plan.contains("ITEM"), "Unexpected plan: " + plan);
+                return plan;
+            }
+
+            Thread.sleep(10);
+        }
+
+        return null;
+    }
+}
@@ -3,10 +3,24 @@ package ru.yandex.practicum.filmorate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.BatchError;
+import ru.yandex.practicum.filmorate.model.BatchResult;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Page;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.repository.contracts.FriendshipRepository;
+import ru.yandex.practicum.filmorate.repository.contracts.LikeRepository;
+import ru.yandex.practicum.filmorate.repository.index.FriendGraph;
+import ru.yandex.practicum.filmorate.repository.index.LikeMatrix;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -15,6 +29,21 @@ public class UserControllerTests {
 
     @Autowired
     private ru.yandex.practicum.filmorate.controller.UserController controller;
+
+    @Autowired
+    private ru.yandex.practicum.filmorate.controller.FilmController filmController;
+
+    @Autowired
+    private FriendshipRepository friendshipRepository;
+
+    @Autowired
+    private FriendGraph friendGraph;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private LikeMatrix likeMatrix;
     private static int userIndex = 0;
 
     private static User makeUser() {
@@ -27,6 +56,15 @@ public class UserControllerTests {
                 .build();
     }
 
+    private static Film makeFilm() {
+        return Film.builder()
+                .name("Film " + userIndex)
+                .description("Film description")
+                .duration(100)
+                .releaseDate(LocalDate.of(2021, 11, 27))
+                .build();
+    }
+
     @Test
     public void userAddedWithValidFieldValues() {
         final User[] users = {null};
@@ -124,4 +162,308 @@ public class UserControllerTests {
 
         assertDoesNotThrow(() -> controller.create(user), "Validation failed");
     }
+
+    @Test
+    public void usersPagedByCursor() {
+        User user = controller.create(makeUser());
+        User user2 = controller.create(makeUser());
+        User user3 = controller.create(makeUser());
+
+        Page<User> page = controller.page(user.getId() - 1, 2);
+
+        assertEquals(List.of(user, user2), page.getItems(), "Invalid first page");
+        assertEquals(user2.getId(), page.getNextCursor(), "Invalid next cursor");
+
+        Page<User> nextPage = controller.page(page.getNextCursor(), 2);
+
+        assertEquals(user3, nextPage.getItems().getFirst(), "Invalid second page");
+    }
+
+    @Test
+    public void errorOnInvalidPageLimit() {
+        assertThrows(ValidationException.class, () -> controller.page(0L, 0), "Validation on zero limit is failed");
+    }
+
+    @Test
+    public void batchCreateRejectsDuplicateLogins() {
+        User user = makeUser();
+        User duplicate = makeUser();
+        duplicate.setLogin(user.getLogin());
+        User sameEmailAsRejected = makeUser();
+        sameEmailAsRejected.setEmail(duplicate.getEmail());
+
+        BatchResult<User> result = controller.createAll(List.of(user, duplicate, sameEmailAsRejected));
+
+        assertEquals(2, result.getCreated().size(), "Unique users not created");
+        assertEquals(1, result.getErrors().size(), "Rejected user blocked another one");
+        assertEquals(1, result.getErrors().getFirst().getIndex(), "Duplicate login not reported");
+        assertTrue(controller.list().contains(user), "User not added");
+        assertTrue(controller.list().contains(sameEmailAsRejected), "User with email of rejected one not added");
+    }
+
+    @Test
+    public void batchCreateErrorsInInputOrder() {
+        User existing = controller.create(makeUser());
+        User duplicate = makeUser();
+        duplicate.setLogin(existing.getLogin());
+        User invalid = makeUser();
+        invalid.setLogin("invalid login");
+
+        BatchResult<User> result = controller.createAll(List.of(duplicate, invalid, makeUser()));
+
+        assertEquals(
+                List.of(0, 1),
+                result.getErrors().stream().map(BatchError::getIndex).toList(),
+                "Errors not ordered by input index"
+        );
+    }
+
+    @Test
+    public void addFriendIsIdempotentAndChecksUsers() {
+        User user = controller.create(makeUser());
+        User friend = controller.create(makeUser());
+
+        assertDoesNotThrow(() -> controller.addFriend(user.getId(), friend.getId()), "Friend not added");
+        assertDoesNotThrow(() -> controller.addFriend(user.getId(), friend.getId()), "Repeated friend add failed");
+        assertEquals(List.of(friend), List.copyOf(controller.getUserFriends(user.getId())), "Invalid friends list");
+        assertThrows(NotFoundException.class, () -> controller.addFriend(user.getId(), Long.MAX_VALUE), "Missing friend not detected");
+        assertThrows(NotFoundException.class, () -> controller.deleteFriend(Long.MAX_VALUE, user.getId()), "Missing user not detected");
+    }
+
+    @Test
+    public void friendsOfFriendsRecommended() {
+        User user = controller.create(makeUser());
+        User friend = controller.create(makeUser());
+        User friendOfFriend = controller.create(makeUser());
+
+        controller.addFriend(user.getId(), friend.getId());
+        controller.addFriend(friend.getId(), friendOfFriend.getId());
+        controller.addFriend(friend.getId(), user.getId());
+
+        assertEquals(
+                List.of(friendOfFriend),
+                List.copyOf(controller.getRecommendedFriends(user.getId(), 10)),
+                "Invalid recommendations"
+        );
+        assertThrows(NotFoundException.class, () -> controller.getRecommendedFriends(Long.MAX_VALUE, 10), "Missing user not detected");
+        assertThrows(
+                ValidationException.class,
+                () -> controller.getRecommendedFriends(user.getId(), Integer.MAX_VALUE),
+                "Validation on huge count is failed"
+        );
+    }
+
+    @Test
+    public void friendRecommendationsFollowReconciledGraph() {
+        User user = controller.create(makeUser());
+        User friend = controller.create(makeUser());
+        User friendOfFriend = controller.create(makeUser());
+
+        controller.addFriend(user.getId(), friend.getId());
+        friendGraph.add(friend.getId(), friendOfFriend.getId());
+
+        assertEquals(List.of(friendOfFriend), List.copyOf(controller.getRecommendedFriends(user.getId(), 10)));
+
+        friendshipRepository.reconcileFriendGraph();
+
+        assertTrue(controller.getRecommendedFriends(user.getId(), 10).isEmpty(), "Recommended from drifted edge");
+    }
+
+    @Test
+    public void batchFriendsMergedIntoGraph() throws IOException {
+        User user = controller.create(makeUser());
+        User other = controller.create(makeUser());
+        List<User> friends = List.of(controller.create(makeUser()), controller.create(makeUser()), controller.create(makeUser()));
+        String body = String.format(
+                "{\"userId\":%1$d,\"friendId\":%3$d} {\"userId\":%1$d,\"friendId\":%2$d} " +
+                        "{\"userId\":%1$d,\"friendId\":%4$d} {\"userId\":%1$d,\"friendId\":%2$d} " +
+                        "{\"userId\":%5$d,\"friendId\":%3$d} {\"userId\":%5$d,\"friendId\":%4$d}",
+                user.getId(),
+                friends.get(0).getId(),
+                friends.get(1).getId(),
+                friends.get(2).getId(),
+                other.getId()
+        );
+
+        controller.addFriends(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(
+                List.of(friends.get(1), friends.get(2)),
+                List.copyOf(controller.getCommonFriends(user.getId(), other.getId())),
+                "Batch friendships not merged into friend graph"
+        );
+    }
+
+    @Test
+    public void filmsRecommendedFromSimilarUsers() {
+        User user = controller.create(makeUser());
+        User similar = controller.create(makeUser());
+        Film film = filmController.create(makeFilm());
+        Film film2 = filmController.create(makeFilm());
+        Film recommended = filmController.create(makeFilm());
+
+        filmController.addLike(film.getId(), user.getId());
+        filmController.addLike(film2.getId(), user.getId());
+        filmController.addLike(film.getId(), similar.getId());
+        filmController.addLike(film2.getId(), similar.getId());
+        filmController.addLike(recommended.getId(), similar.getId());
+
+        List<Long> recommendations = controller.getRecommendedFilms(user.getId(), 10).stream()
+                .map(Film::getId)
+                .toList();
+
+        assertEquals(List.of(recommended.getId()), recommendations, "Invalid film recommendations");
+        assertThrows(
+                ValidationException.class,
+                () -> controller.getRecommendedFilms(user.getId(), Integer.MAX_VALUE),
+                "Validation on huge count is failed"
+        );
+    }
+
+    @Test
+    public void filmRecommendationsFollowReconciledMatrix() {
+        User user = controller.create(makeUser());
+        User similar = controller.create(makeUser());
+        Film film = filmController.create(makeFilm());
+        Film recommended = filmController.create(makeFilm());
+        Film drifted = filmController.create(makeFilm());
+
+        filmController.addLike(film.getId(), user.getId());
+        filmController.addLike(film.getId(), similar.getId());
+        filmController.addLike(recommended.getId(), similar.getId());
+        likeMatrix.add(drifted.getId(), similar.getId());
+        likeMatrix.remove(recommended.getId(), similar.getId());
+
+        assertEquals(List.of(drifted), List.copyOf(controller.getRecommendedFilms(user.getId(), 10)), "Matrix drift not visible");
+
+        likeRepository.reconcileLikeMatrix();
+
+        assertEquals(List.of(recommended), List.copyOf(controller.getRecommendedFilms(user.getId(), 10)), "Drifted matrix not reconciled");
+    }
+
+    @Test
+    public void likeMatrixAcceptsLargeIds() {
+        LikeMatrix likeMatrix = new LikeMatrix();
+        long user = Long.MAX_VALUE;
+        long similar = Integer.MAX_VALUE + 1L;
+        long film = Integer.MAX_VALUE + 10L;
+        long recommended = Long.MAX_VALUE - 1;
+
+        likeMatrix.add(film, user);
+        likeMatrix.add(film, similar);
+        likeMatrix.add(recommended, similar);
+
+        assertEquals(List.of(recommended), likeMatrix.recommend(user, 10), "Invalid film recommendations");
+
+        likeMatrix.remove(recommended, similar);
+
+        assertEquals(List.of(), likeMatrix.recommend(user, 10), "Removed like still recommended");
+    }
+
+    @Test
+    public void likeMatrixKeepsClosestNeighboursOfLargeCandidateSet() {
+        LikeMatrix likeMatrix = new LikeMatrix();
+
+        likeMatrix.seed(likes -> {
+            likes.accept(1L, 0L);
+            likes.accept(2L, 0L);
+
+            for (long user = 1; user <= 5000; user++) {
+                likes.accept(1L, user);
+
+                if (user <= 60) {
+                    likes.accept(2L, user);
+                    likes.accept(100L + user, user);
+                }
+            }
+        });
+
+        List<Long> recommendations = likeMatrix.recommend(0L, 100);
+
+        assertEquals(50, recommendations.size(), "Recommended beyond closest neighbours");
+        assertEquals(List.of(101L, 102L, 103L), recommendations.subList(0, 3), "Invalid film recommendations");
+        likeMatrix.close();
+    }
+
+    @Test
+    public void likeMatrixSeededFromStreamedLikes() {
+        LikeMatrix likeMatrix = new LikeMatrix();
+        likeMatrix.add(3L, 1L);
+
+        int users = likeMatrix.seed(likes -> {
+            likes.accept(1L, 1L);
+            likes.accept(1L, 2L);
+            likes.accept(2L, 2L);
+        });
+
+        assertEquals(2, users, "Invalid seeded users count");
+        assertEquals(List.of(2L), likeMatrix.recommend(1L, 10), "Invalid film recommendations");
+    }
+
+    @Test
+    public void commonFriendsIntersected() {
+        User user = controller.create(makeUser());
+        User other = controller.create(makeUser());
+        User common = controller.create(makeUser());
+        User single = controller.create(makeUser());
+
+        controller.addFriend(user.getId(), common.getId());
+        controller.addFriend(user.getId(), single.getId());
+        controller.addFriend(other.getId(), common.getId());
+
+        assertEquals(
+                List.of(common),
+                List.copyOf(controller.getCommonFriends(user.getId(), other.getId())),
+                "Invalid common friends"
+        );
+    }
+
+    @Test
+    public void friendGraphReconciledWithDatabase() {
+        User user = controller.create(makeUser());
+        User other = controller.create(makeUser());
+        User common = controller.create(makeUser());
+
+        controller.addFriend(other.getId(), common.getId());
+        friendGraph.add(user.getId(), common.getId());
+
+        assertEquals(List.of(common), List.copyOf(controller.getCommonFriends(user.getId(), other.getId())));
+        assertTrue(friendshipRepository.reconcileFriendGraph() > 0, "Drift not reported");
+        assertTrue(controller.getCommonFriends(user.getId(), other.getId()).isEmpty(), "Drifted edge kept");
+    }
+
+    @Test
+    public void concurrentFriendWritesLeaveGraphInDatabaseState() throws InterruptedException {
+        User user = controller.create(makeUser());
+        User friend = controller.create(makeUser());
+        User witness = controller.create(makeUser());
+        controller.addFriend(witness.getId(), friend.getId());
+
+        CountDownLatch start = new CountDownLatch(1);
+        Thread adder = Thread.ofPlatform().start(() -> repeat(start, () -> controller.addFriend(user.getId(), friend.getId())));
+        Thread remover = Thread.ofPlatform().start(() -> repeat(start, () -> controller.deleteFriend(user.getId(), friend.getId())));
+
+        start.countDown();
+        adder.join();
+        remover.join();
+
+        assertEquals(
+                controller.getUserFriends(user.getId()).contains(friend),
+                controller.getCommonFriends(user.getId(), witness.getId()).contains(friend),
+                "Friend graph differs from friendship table"
+        );
+    }
+
+    private static void repeat(final CountDownLatch start, final Runnable write) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        for (int i = 0; i < 200; i++) {
+            write.run();
+        }
+    }
 }
@@ -0,0 +1,37 @@
+package ru.yandex.practicum.filmorate;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.repository.VirtualThreadPoolPostProcessor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class VirtualThreadPoolTests {
+    private final VirtualThreadPoolPostProcessor postProcessor = new VirtualThreadPoolPostProcessor();
+
+    @Test
+    public void poolLimitedToCarrierCount() {
+        int limit = postProcessor.getMaximumPoolSize();
+
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            dataSource.setMaximumPoolSize(limit + 10);
+            dataSource.setMinimumIdle(limit + 10);
+            postProcessor.postProcessBeforeInitialization(dataSource, "dataSource");
+
+            assertTrue(limit >= 2, "Pool too small for migrations");
+            assertEquals(limit, dataSource.getMaximumPoolSize(), "Pool not limited");
+            assertEquals(limit, dataSource.getMinimumIdle(), "Idle connections not limited");
+        }
+    }
+
+    @Test
+    public void smallerPoolKept() {
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            dataSource.setMaximumPoolSize(2);
+            postProcessor.postProcessBeforeInitialization(dataSource, "dataSource");
+
+            assertEquals(2, dataSource.getMaximumPoolSize(), "Smaller pool changed");
+        }
+    }
+}
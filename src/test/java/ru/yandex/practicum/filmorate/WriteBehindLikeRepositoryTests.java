@@ -0,0 +1,182 @@
+package ru.yandex.practicum.filmorate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exception.ServiceUnavailableException;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.repository.LikeDbRepository;
+import ru.yandex.practicum.filmorate.repository.WriteBehindLikeRepository;
+import ru.yandex.practicum.filmorate.repository.contracts.WriteOutcome;
+import ru.yandex.practicum.filmorate.repository.index.PopularFilmIndex;
+import ru.yandex.practicum.filmorate.repository.index.UserIdIndex;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class WriteBehindLikeRepositoryTests {
+    private static final long LONG_INTERVAL_MS = 60_000;
+
+    private final LikeDbRepository likeDbRepository = mock(LikeDbRepository.class);
+    private final PopularFilmIndex popularFilmIndex = new PopularFilmIndex();
+    private final UserIdIndex userIdIndex = new UserIdIndex();
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final List<Like> added = new CopyOnWriteArrayList<>();
+    private final List<Like> deleted = new CopyOnWriteArrayList<>();
+
+    private WriteBehindLikeRepository repository(
+            final int capacity,
+            final int batchSize,
+            final long flushIntervalMs,
+            final long offerTimeoutMs
+    ) {
+        popularFilmIndex.seed(LongStream.rangeClosed(1, 10).boxed().collect(Collectors.toMap(id -> id, id -> 0L)));
+        userIdIndex.seed(ids -> ids.accept(1L));
+
+        return new WriteBehindLikeRepository(
+                likeDbRepository,
+                popularFilmIndex,
+                userIdIndex,
+                capacity,
+                batchSize,
+                flushIntervalMs,
+                offerTimeoutMs,
+                2,
+                registry
+        );
+    }
+
+    private void recordWrites() {
+        doAnswer(invocation -> {
+            List<Like> likes = invocation.getArgument(0);
+            added.addAll(likes);
+            return likes.size();
+        }).when(likeDbRepository).addLikes(anyList());
+        doAnswer(invocation -> {
+            List<Like> likes = invocation.getArgument(0);
+            deleted.addAll(likes);
+            return likes.size();
+        }).when(likeDbRepository).deleteLikes(anyList());
+    }
+
+    private static Like like(final long filmId, final long userId) {
+        return Like.builder().filmId(filmId).userId(userId).build();
+    }
+
+    @Test
+    public void repeatedOperationsCoalesced() {
+        recordWrites();
+        WriteBehindLikeRepository repository = repository(100, 100, LONG_INTERVAL_MS, 100);
+
+        repository.addLike(1L, 1L);
+        repository.deleteLike(1L, 1L);
+        repository.addLike(1L, 1L);
+        repository.deleteLike(2L, 1L);
+        repository.shutdown();
+
+        assertEquals(List.of(like(1L, 1L)), added, "Likes not coalesced");
+        assertEquals(List.of(like(2L, 1L)), deleted, "Delete not written");
+    }
+
+    @Test
+    public void pendingLikesDrainedOnShutdown() {
+        recordWrites();
+        WriteBehindLikeRepository repository = repository(100, 3, LONG_INTERVAL_MS, 100);
+
+        for (long filmId = 1; filmId <= 10; filmId++) {
+            repository.addLike(filmId, 1L);
+        }
+
+        repository.shutdown();
+
+        assertEquals(10, added.size(), "Pending likes not drained");
+        verify(likeDbRepository, never()).deleteLikes(anyList());
+    }
+
+    @Test
+    public void fullQueueRejectedAfterOfferTimeout() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            added.addAll(invocation.getArgument(0));
+            return 1;
+        }).when(likeDbRepository).addLikes(anyList());
+
+        WriteBehindLikeRepository repository = repository(1, 1, 10, 50);
+
+        repository.addLike(1L, 1L);
+        assertTrue(writing.await(5, TimeUnit.SECONDS), "Flush not started");
+        repository.addLike(2L, 1L);
+
+        assertThrows(ServiceUnavailableException.class, () -> repository.addLike(3L, 1L), "Full queue accepted like");
+
+        release.countDown();
+        repository.shutdown();
+
+        assertEquals(List.of(like(1L, 1L), like(2L, 1L)), added, "Queued likes not written");
+    }
+
+    @Test
+    public void failedChunkRetriedWithoutSkippingOthers() {
+        List<Like> attempts = new CopyOnWriteArrayList<>();
+
+        doAnswer(invocation -> {
+            List<Like> likes = invocation.getArgument(0);
+            attempts.addAll(likes);
+
+            if (likes.contains(like(1L, 1L))) {
+                throw new IllegalStateException("Write failed");
+            }
+
+            added.addAll(likes);
+            return likes.size();
+        }).when(likeDbRepository).addLikes(anyList());
+
+        WriteBehindLikeRepository repository = repository(100, 1, LONG_INTERVAL_MS, 100);
+
+        repository.addLike(1L, 1L);
+        repository.addLike(2L, 1L);
+        repository.shutdown();
+
+        assertEquals(List.of(like(2L, 1L)), added, "Chunk after failed one skipped");
+        assertEquals(3, attempts.stream().filter(like(1L, 1L)::equals).count(), "Failed like not retried");
+        assertEquals(2, registry.counter("filmorate.likes.write-behind.retried").count(), "Retries not counted");
+        assertEquals(1, registry.counter("filmorate.likes.write-behind.dropped").count(), "Dropped like not counted");
+    }
+
+    @Test
+    public void unknownIdsRejectedBeforeQueueing() {
+        recordWrites();
+        WriteBehindLikeRepository repository = repository(100, 100, LONG_INTERVAL_MS, 100);
+
+        assertEquals(WriteOutcome.FILM_NOT_FOUND, repository.addLike(11L, 1L), "Unknown film queued");
+        assertEquals(WriteOutcome.USER_NOT_FOUND, repository.addLike(1L, 2L), "Unknown user queued");
+        assertEquals(WriteOutcome.FILM_NOT_FOUND, repository.deleteLike(11L, 1L), "Unknown film queued");
+
+        repository.addLike(1L, 1L);
+        repository.addLike(2L, 1L);
+        popularFilmIndex.seed(Map.of(1L, 0L));
+        repository.shutdown();
+
+        assertEquals(List.of(like(1L, 1L)), added, "Like of unknown film written");
+        assertEquals(1, registry.counter("filmorate.likes.write-behind.unknown").count(), "Unknown like not counted");
+        assertEquals(0, registry.counter("filmorate.likes.write-behind.dropped").count(), "Unknown like counted as retry drop");
+    }
+}